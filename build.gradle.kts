@@ -38,6 +38,11 @@ dependencies {
         name = "junit-jupiter-engine",
         version = properties["dep_test-junit"].toString()
     )
+    testImplementation(
+        group = "org.openjdk.jol",
+        name = "jol-core",
+        version = properties["dep_test-jol"].toString()
+    )
 
     jmh(
         group = "org.openjdk.jmh",
@@ -62,18 +67,56 @@ java {
     toolchain.languageVersion = JavaLanguageVersion.of(JavaVersion.VERSION_17.toString())
 }
 
+sourceSets {
+    create("java21") {
+        java.srcDir("src/main/java21")
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+}
+
 tasks.withType<JavaCompile> {
     sourceCompatibility = JavaVersion.VERSION_17.toString()
     targetCompatibility = JavaVersion.VERSION_17.toString()
     options.encoding = StandardCharsets.UTF_8.toString()
 }
 
+tasks.named<JavaCompile>("compileJava21Java") {
+    javaCompiler = javaToolchains.compilerFor {
+        languageVersion = JavaLanguageVersion.of(JavaVersion.VERSION_21.toString())
+    }
+    sourceCompatibility = JavaVersion.VERSION_21.toString()
+    targetCompatibility = JavaVersion.VERSION_21.toString()
+    options.release = 21
+}
+
+tasks.jar {
+    into("META-INF/versions/21") {
+        from(sourceSets["java21"].output)
+    }
+    manifest.attributes("Multi-Release" to "true")
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     maxParallelForks = 1
     failFast = false
 }
 
+val testJava21 by tasks.registering(Test::class) {
+    description = "Runs the tests on Java 21 against the multi-release jar."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    javaLauncher = javaToolchains.launcherFor {
+        languageVersion = JavaLanguageVersion.of(JavaVersion.VERSION_21.toString())
+    }
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = files(tasks.jar) + sourceSets.test.get().runtimeClasspath - sourceSets.main.get().output
+    systemProperty("tinyevents.multiRelease", "true")
+}
+
+tasks.check {
+    dependsOn(testJava21)
+}
+
 
 tasks.withType<AbstractArchiveTask> {
     isReproducibleFileOrder = true
@@ -0,0 +1,45 @@
+import java.nio.charset.StandardCharsets
+
+plugins {
+    id("java")
+    id("java-library")
+}
+
+group = "zip.luzey"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    testImplementation(project(":"))
+    testImplementation(
+        group = "org.junit.jupiter",
+        name = "junit-jupiter-api",
+        version = properties["dep_test-junit"].toString()
+    )
+    testRuntimeOnly(
+        group = "org.junit.jupiter",
+        name = "junit-jupiter-engine",
+        version = properties["dep_test-junit"].toString()
+    )
+}
+
+java {
+    withSourcesJar()
+    withJavadocJar()
+    toolchain.languageVersion = JavaLanguageVersion.of(JavaVersion.VERSION_17.toString())
+}
+
+tasks.withType<JavaCompile> {
+    sourceCompatibility = JavaVersion.VERSION_17.toString()
+    targetCompatibility = JavaVersion.VERSION_17.toString()
+    options.encoding = StandardCharsets.UTF_8.toString()
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+    maxParallelForks = 1
+    failFast = false
+}
@@ -0,0 +1,309 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates an {@code IRegistrar} per listener-class from its {@code @Subscribe}-methods.<br>
+ * When the option {@code tinyevents.index} names a class, a dispatch-table of all listeners keyed by event-class
+ * gets generated as well. Nothing of it uses reflection, so it works the same in a native-image.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SupportedAnnotationTypes(SubscribeProcessor.SUBSCRIBE)
+@SupportedOptions(SubscribeProcessor.INDEX_OPTION)
+public final class SubscribeProcessor extends AbstractProcessor {
+	static final String SUBSCRIBE = "zip.luzey.tinyevents.EventHandlers.Subscribe";
+	static final String INDEX_OPTION = "tinyevents.index";
+
+	private static final String ABSTRACT_EVENT = "zip.luzey.tinyevents.AbstractEvent";
+	private static final String REGISTRAR_SUFFIX = "Registrar";
+
+	private final Map<TypeElement, List<ExecutableElement>> listeners = new LinkedHashMap<>();
+	private final Map<String, String> registrars = new LinkedHashMap<>();
+	private boolean indexed;
+
+	public @Override SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	public @Override boolean process(
+		 final Set<? extends TypeElement> annotations,
+		 final RoundEnvironment round
+	) {
+		final TypeElement subscribe = this.processingEnv.getElementUtils().getTypeElement(SUBSCRIBE);
+		final Map<TypeElement, List<ExecutableElement>> found = new LinkedHashMap<>();
+		if (subscribe != null) {
+			for (final Element element : round.getElementsAnnotatedWith(subscribe)) {
+				if (this.validate((ExecutableElement) element)) {
+					found.computeIfAbsent((TypeElement) element.getEnclosingElement(), key -> new ArrayList<>()).add((ExecutableElement) element);
+				}
+			}
+			found.forEach(this::generateRegistrar);
+			this.listeners.putAll(found);
+		}
+
+		// the first round without new listeners writes our index, so it still gets compiled in the next round.
+		if (found.isEmpty() && !this.indexed && !this.listeners.isEmpty() && !round.processingOver()) {
+			this.indexed = true;
+			final String index = this.processingEnv.getOptions().get(INDEX_OPTION);
+			if (index != null && !index.isBlank()) this.generateIndex(index.trim());
+		}
+		return false;
+	}
+
+	/**
+	 * @param method The annotated method we want to check.
+	 *
+	 * @return true if we can generate a handler for the method, otherwise an error got reported.
+	 */
+	private boolean validate(final ExecutableElement method) {
+		final Set<Modifier> modifiers = method.getModifiers();
+		final Element owner = method.getEnclosingElement();
+		final String error;
+		if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) {
+			error = "@Subscribe-methods can't be private or static.";
+		} else if (method.getParameters().size() != 1) {
+			error = "@Subscribe-methods need exactly one parameter.";
+		} else if (!this.isEvent(method.getParameters().get(0).asType())) {
+			error = "The parameter of a @Subscribe-method has to extend AbstractEvent.";
+		} else if (!(owner instanceof TypeElement) || owner.getModifiers().contains(Modifier.PRIVATE)) {
+			error = "@Subscribe-methods have to be declared in a non-private class.";
+		} else if (owner.getEnclosingElement().getKind() != ElementKind.PACKAGE && !owner.getModifiers().contains(Modifier.STATIC)
+		           && owner.getKind() == ElementKind.CLASS) {
+			error = "@Subscribe-methods can't be declared in inner classes.";
+		} else return true;
+
+		this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, error, method);
+		return false;
+	}
+
+	/**
+	 * @param type The type we want to check.
+	 *
+	 * @return true if our type is a subtype of AbstractEvent.
+	 */
+	private boolean isEvent(final TypeMirror type) {
+		final TypeElement event = this.processingEnv.getElementUtils().getTypeElement(ABSTRACT_EVENT);
+		final Types types = this.processingEnv.getTypeUtils();
+		return event != null && types.isAssignable(types.erasure(type), types.erasure(event.asType()));
+	}
+
+	/**
+	 * Writes {@code <Listener>Registrar}, which creates one handler per method with its priority.
+	 *
+	 * @param listener The listener-class.
+	 * @param methods  The valid {@code @Subscribe}-methods of our listener.
+	 */
+	private void generateRegistrar(
+		 final TypeElement listener,
+		 final List<ExecutableElement> methods
+	) {
+		final String packageName = this.processingEnv.getElementUtils().getPackageOf(listener).getQualifiedName().toString();
+		final String listenerName = listener.getQualifiedName().toString();
+		final String simpleName = this.flatName(listener, packageName) + REGISTRAR_SUFFIX;
+		final String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		final Types types = this.processingEnv.getTypeUtils();
+
+		final StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+		source.append("/**\n")
+		      .append(" * Generated by the tinyevents annotation-processor from {@link ").append(listenerName).append("}.\n")
+		      .append(" */\n")
+		      .append("@javax.annotation.processing.Generated(\"").append(SubscribeProcessor.class.getName()).append("\")\n");
+		if (this.isGeneric(listener.asType()) || methods.stream().anyMatch(method -> this.isGeneric(method.getParameters().get(0).asType())))
+			source.append("@SuppressWarnings(\"rawtypes\")\n");
+		source.append("public final class ").append(simpleName)
+		      .append(" implements zip.luzey.tinyevents.EventHandlers.IRegistrar<").append(listenerName).append("> {\n")
+		      .append("\tpublic static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n\n")
+		      .append("\tprivate ").append(simpleName).append("() {\n\t}\n\n")
+		      .append("\tpublic @Override Class<").append(listenerName).append("> listener() {\n")
+		      .append("\t\treturn ").append(listenerName).append(".class;\n")
+		      .append("\t}\n\n")
+		      .append("\tpublic @Override Registration register(\n")
+		      .append("\t\t final zip.luzey.tinyevents.TinyEvents events,\n")
+		      .append("\t\t final ").append(listenerName).append(" listener\n")
+		      .append("\t) {\n");
+
+		for (int index = 0 ; index < methods.size() ; index++) {
+			final ExecutableElement method = methods.get(index);
+			final String event = types.erasure(method.getParameters().get(0).asType()).toString();
+			source.append("\t\tfinal zip.luzey.tinyevents.EventHandlers.IHandler<").append(event).append("> handler").append(index)
+			      .append(" = new zip.luzey.tinyevents.EventHandlers.IHandler<>() {\n")
+			      .append("\t\t\tpublic @Override void handle(final ").append(event).append(" event) {\n")
+			      .append("\t\t\t\tlistener.").append(method.getSimpleName()).append("(event);\n")
+			      .append("\t\t\t}\n\n")
+			      .append("\t\t\tpublic @Override short priority() {\n")
+			      .append("\t\t\t\treturn ").append(this.priority(method)).append(";\n")
+			      .append("\t\t\t}\n")
+			      .append("\t\t};\n")
+			      .append("\t\tevents.register(").append(event).append(".class, handler").append(index).append(");\n");
+		}
+
+		source.append("\t\treturn () -> {\n");
+		for (int index = 0 ; index < methods.size() ; index++) {
+			final String event = types.erasure(methods.get(index).getParameters().get(0).asType()).toString();
+			source.append("\t\t\tevents.unregister(").append(event).append(".class, handler").append(index).append(");\n");
+		}
+		source.append("\t\t};\n")
+		      .append("\t}\n")
+		      .append("}\n");
+
+		this.write(qualifiedName, source, listener);
+		this.registrars.put(listenerName, qualifiedName);
+	}
+
+	/**
+	 * Writes the dispatch-table of all listeners of this compilation.
+	 *
+	 * @param qualifiedName The fully qualified name of the class we want to generate.
+	 */
+	private void generateIndex(final String qualifiedName) {
+		final int split = qualifiedName.lastIndexOf('.');
+		final String packageName = split < 0 ? "" : qualifiedName.substring(0, split);
+		final String simpleName = qualifiedName.substring(split + 1);
+		final Types types = this.processingEnv.getTypeUtils();
+
+		final Map<String, Set<String>> byEvent = new TreeMap<>();
+		this.listeners.forEach((listener, methods) -> {
+			for (final ExecutableElement method : methods) {
+				byEvent.computeIfAbsent(
+					 types.erasure(method.getParameters().get(0).asType()).toString(),
+					 key -> new TreeSet<>()
+				).add(listener.getQualifiedName().toString());
+			}
+		});
+
+		final StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+		source.append("/**\n")
+		      .append(" * Generated by the tinyevents annotation-processor, the dispatch-table of all listeners.\n")
+		      .append(" */\n")
+		      .append("@javax.annotation.processing.Generated(\"").append(SubscribeProcessor.class.getName()).append("\")\n");
+		if (this.listeners.keySet().stream().anyMatch(listener -> this.isGeneric(listener.asType())))
+			source.append("@SuppressWarnings(\"rawtypes\")\n");
+		source.append("public final class ").append(simpleName).append(" {\n")
+		      .append("\t/**\n\t * The listener-classes keyed by the event-classes they subscribe to.\n\t */\n")
+		      .append("\tpublic static final java.util.Map<Class<? extends zip.luzey.tinyevents.AbstractEvent>, java.util.List<Class<?>>> LISTENERS = java.util.Map.ofEntries(\n");
+
+		final Iterator<Map.Entry<String, Set<String>>> entries = byEvent.entrySet().iterator();
+		while (entries.hasNext()) {
+			final Map.Entry<String, Set<String>> entry = entries.next();
+			source.append("\t\t java.util.Map.entry(").append(entry.getKey()).append(".class, java.util.List.of(");
+			final Iterator<String> listeners = entry.getValue().iterator();
+			while (listeners.hasNext()) source.append(listeners.next()).append(".class").append(listeners.hasNext() ? ", " : "");
+			source.append("))").append(entries.hasNext() ? ",\n" : "\n");
+		}
+
+		source.append("\t);\n\n")
+		      .append("\tprivate ").append(simpleName).append("() {\n\t}\n\n")
+		      .append("\t/**\n")
+		      .append("\t * Registers the handlers of a listener through its generated registrar.\n")
+		      .append("\t *\n")
+		      .append("\t * @param events   The event-manager we want to register to.\n")
+		      .append("\t * @param listener The listener whose methods our handlers call.\n")
+		      .append("\t *\n")
+		      .append("\t * @return A registration that unregisters all created handlers when closed.\n")
+		      .append("\t */\n")
+		      .append("\tpublic static zip.luzey.tinyevents.EventHandlers.IRegistrar.Registration register(\n")
+		      .append("\t\t final zip.luzey.tinyevents.TinyEvents events,\n")
+		      .append("\t\t final Object listener\n")
+		      .append("\t) {\n");
+		this.registrars.forEach((listener, registrar) -> source
+			 .append("\t\tif (listener instanceof ").append(listener).append(") return ")
+			 .append(registrar).append(".INSTANCE.register(events, (").append(listener).append(") listener);\n"));
+		source.append("\t\tthrow new IllegalArgumentException(\"The listener \" + listener + \" has no registrar.\");\n")
+		      .append("\t}\n")
+		      .append("}\n");
+
+		this.write(qualifiedName, source, this.listeners.keySet().toArray(new Element[0]));
+	}
+
+	/**
+	 * Generated code names listeners and events by their erasure, which is a raw type for generic classes.
+	 *
+	 * @param type The type we want to check.
+	 *
+	 * @return true if the class of our type declares type-parameters.
+	 */
+	private boolean isGeneric(final TypeMirror type) {
+		return this.processingEnv.getTypeUtils().asElement(type) instanceof TypeElement element
+		       && !element.getTypeParameters().isEmpty();
+	}
+
+	/**
+	 * @param type        The type we want the name for.
+	 * @param packageName The package of our type.
+	 *
+	 * @return The binary name of our type without its package and with {@code _} instead of {@code $}.
+	 */
+	private String flatName(
+		 final TypeElement type,
+		 final String packageName
+	) {
+		final String qualifiedName = type.getQualifiedName().toString();
+		return (packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1)).replace('.', '_');
+	}
+
+	/**
+	 * @param method The annotated method.
+	 *
+	 * @return The priority given to its annotation.
+	 */
+	private short priority(final ExecutableElement method) {
+		for (final AnnotationMirror annotation : method.getAnnotationMirrors()) {
+			if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SUBSCRIBE)) continue;
+			for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("priority")) return ((Number) entry.getValue().getValue()).shortValue();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @param qualifiedName The fully qualified name of our source-file.
+	 * @param source        The source we want to write.
+	 * @param origins       The elements our source was generated from.
+	 */
+	private void write(
+		 final String qualifiedName,
+		 final CharSequence source,
+		 final Element... origins
+	) {
+		try (final Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, origins).openWriter()) {
+			writer.append(source);
+		} catch (final IOException exception) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(
+				 "Couldn't write %s: %s",
+				 qualifiedName, exception.getMessage()
+			));
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents.processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import zip.luzey.tinyevents.AbstractEvent;
+import zip.luzey.tinyevents.EventHandlers;
+import zip.luzey.tinyevents.TinyEvents;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link SubscribeProcessor annotation-processor}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("SubscribeProcessor.java")
+class TestSubscribeProcessor {
+	private static final String EVENT = """
+		 package sample;
+
+		 public final class PingEvent extends zip.luzey.tinyevents.AbstractEvent {
+		 	public final StringBuilder trace = new StringBuilder();
+
+		 	public @Override int hashCode() {
+		 		return this.trace.hashCode();
+		 	}
+
+		 	public @Override boolean equals(final Object object) {
+		 		return this == object;
+		 	}
+
+		 	public @Override String toString() {
+		 		return "PingEvent[trace='" + this.trace + "']";
+		 	}
+		 }
+		 """;
+
+	private static final String LISTENER = """
+		 package sample;
+
+		 import zip.luzey.tinyevents.EventHandlers.Subscribe;
+
+		 public class Listener {
+		 	@Subscribe(priority = 1)
+		 	void low(final PingEvent event) {
+		 		event.trace.append("low;");
+		 	}
+
+		 	@Subscribe(priority = 5)
+		 	public void high(final PingEvent event) {
+		 		event.trace.append("high;");
+		 	}
+
+		 	public static class Nested {
+		 		@Subscribe
+		 		void nested(final PingEvent event) {
+		 			event.trace.append("nested;");
+		 		}
+		 	}
+		 }
+		 """;
+
+	private static final String GENERIC_LISTENER = """
+		 package sample;
+
+		 import zip.luzey.tinyevents.EventHandlers.Subscribe;
+
+		 public class Typed<T> {
+		 	@Subscribe
+		 	void typed(final PingEvent event) {
+		 		event.trace.append("typed;");
+		 	}
+		 }
+		 """;
+
+	/**
+	 * Generates registrars and the index and registers them to an event-manager.
+	 */
+	@Test
+	@DisplayName("generate")
+	void generate() throws Exception {
+		final Path output = Files.createTempDirectory("tinyevents-processor");
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = this.compile(output, Map.of(
+			 "sample/PingEvent.java", EVENT,
+			 "sample/Listener.java", LISTENER,
+			 "sample/Typed.java", GENERIC_LISTENER
+		));
+		assertTrue(diagnostics.isEmpty(), diagnostics.toString());
+
+		try (final URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, this.getClass().getClassLoader())) {
+			final TinyEvents events = new TinyEvents();
+			final Object listener = this.create(loader.loadClass("sample.Listener"));
+			final Object nested = this.create(loader.loadClass("sample.Listener$Nested"));
+
+			@SuppressWarnings("unchecked") final EventHandlers.IRegistrar<Object> registrar = (EventHandlers.IRegistrar<Object>)
+				 loader.loadClass("sample.ListenerRegistrar").getField("INSTANCE").get(null);
+			assertSame(listener.getClass(), registrar.listener());
+
+			final Class<?> index = loader.loadClass("sample.EventIndex");
+			final Map<?, ?> listeners = (Map<?, ?>) index.getField("LISTENERS").get(null);
+			assertEquals(
+				 List.of(listener.getClass(), nested.getClass(), loader.loadClass("sample.Typed")),
+				 listeners.get(loader.loadClass("sample.PingEvent"))
+			);
+
+			final EventHandlers.IRegistrar.Registration first = registrar.register(events, listener);
+			final EventHandlers.IRegistrar.Registration second = (EventHandlers.IRegistrar.Registration) index
+				 .getMethod("register", TinyEvents.class, Object.class).invoke(null, events, nested);
+
+			assertEquals("high;low;nested;", this.ping(loader, events));
+			first.close();
+			assertEquals("nested;", this.ping(loader, events));
+			second.close();
+			assertEquals("", this.ping(loader, events));
+		}
+	}
+
+	/**
+	 * Reports invalid subscribe-methods as compile-errors.
+	 */
+	@Test
+	@DisplayName("validate")
+	void validate() throws IOException {
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = this.compile(
+			 Files.createTempDirectory("tinyevents-processor"), Map.of(
+				  "sample/PingEvent.java", EVENT,
+				  "sample/Invalid.java", """
+					   package sample;
+
+					   import zip.luzey.tinyevents.EventHandlers.Subscribe;
+
+					   public class Invalid {
+					   	@Subscribe
+					   	private void hidden(final PingEvent event) {
+					   	}
+
+					   	@Subscribe
+					   	static void shared(final PingEvent event) {
+					   	}
+
+					   	@Subscribe
+					   	void none() {
+					   	}
+
+					   	@Subscribe
+					   	void wrong(final String event) {
+					   	}
+					   }
+					   """
+			 )
+		);
+		assertEquals(4, diagnostics.stream().filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR).count());
+	}
+
+	private List<Diagnostic<? extends JavaFileObject>> compile(
+		 final Path output,
+		 final Map<String, String> sources
+	) throws IOException {
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		final List<JavaFileObject> units = new ArrayList<>();
+		sources.forEach((name, source) -> units.add(new SimpleJavaFileObject(URI.create("string:///" + name), JavaFileObject.Kind.SOURCE) {
+			public @Override CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+				return source;
+			}
+		}));
+
+		try (final StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, List.of(
+				 "-d", output.toString(),
+				 "-classpath", System.getProperty("java.class.path"),
+				 "-Xlint:all", "-Xlint:-processing",
+				 "-Atinyevents.index=sample.EventIndex"
+			), null, units);
+			task.setProcessors(List.of(new SubscribeProcessor()));
+			task.call();
+		}
+		return diagnostics.getDiagnostics();
+	}
+
+	private Object create(final Class<?> clazz) throws ReflectiveOperationException {
+		final Constructor<?> constructor = clazz.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		return constructor.newInstance();
+	}
+
+	private String ping(
+		 final ClassLoader loader,
+		 final TinyEvents events
+	) throws ReflectiveOperationException {
+		final Object event = this.create(loader.loadClass("sample.PingEvent"));
+		events.call((AbstractEvent) event);
+		return event.getClass().getField("trace").get(event).toString();
+	}
+}
@@ -1 +1,3 @@
 rootProject.name = "Library-TinyEvents"
+
+include("processor")
@@ -0,0 +1,190 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether an event of a class-group gets called at all,
+ * see {@link TinyEvents#setAdmission(Class, Admission)}.<br>
+ * All checks are lock-free and count the admitted and dropped events.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public abstract class Admission {
+	private final LongAdder admitted = new LongAdder(), dropped = new LongAdder();
+
+	private Admission() {
+	}
+
+	/**
+	 * Creates a token-bucket that admits the given amount of events per period on average,
+	 * bursts of up to {@code burst} events are admitted at once.
+	 *
+	 * @param permits The amount of events we admit per period.
+	 * @param period  The period our permits refill in.
+	 * @param unit    The unit of our period.
+	 * @param burst   The maximum amount of events admitted at once.
+	 *
+	 * @return A new rate-limit.
+	 */
+	public static Admission rateLimit(
+		 final long permits,
+		 final long period,
+		 final TimeUnit unit,
+		 final int burst
+	) {
+		if (permits < 1 || period < 1 || burst < 1) throw new IllegalArgumentException("The permits, period and burst have to be positive.");
+		return new RateLimit(Math.max(1, unit.toNanos(period) / permits), burst);
+	}
+
+	/**
+	 * Creates a sampler that admits every n-th event, starting with the first.
+	 *
+	 * @param n The distance between two admitted events.
+	 *
+	 * @return A new sampler.
+	 */
+	public static Admission oneIn(final int n) {
+		if (n < 1) throw new IllegalArgumentException("The distance has to be positive.");
+		return new OneIn(n);
+	}
+
+	/**
+	 * Creates a sampler that admits every event with the given probability.
+	 *
+	 * @param probability The probability from 0 to 1.
+	 *
+	 * @return A new sampler.
+	 */
+	public static Admission probability(final double probability) {
+		if (!(probability >= 0 && probability <= 1)) throw new IllegalArgumentException("The probability has to be between 0 and 1.");
+		return new Probability(probability);
+	}
+
+	/**
+	 * Combines this admission with another one, the other one only sees the events we admitted.
+	 *
+	 * @param next The admission we want to check afterwards.
+	 *
+	 * @return A new admission that admits an event if both admit it.
+	 */
+	public Admission and(final Admission next) {
+		final Admission first = this;
+		return new Admission() {
+			protected @Override boolean test() {
+				return first.admit() && next.admit();
+			}
+		};
+	}
+
+	/**
+	 * Checks and counts an event.
+	 *
+	 * @return true if the event should be called.
+	 */
+	public final boolean admit() {
+		if (this.test()) {
+			this.admitted.increment();
+			return true;
+		}
+		this.dropped.increment();
+		return false;
+	}
+
+	/**
+	 * @return The amount of events we admitted.
+	 */
+	public long getAdmitted() {
+		return this.admitted.sum();
+	}
+
+	/**
+	 * @return The amount of events we dropped.
+	 */
+	public long getDropped() {
+		return this.dropped.sum();
+	}
+
+	/**
+	 * @return true if the next event should be admitted.
+	 */
+	protected abstract boolean test();
+
+	/**
+	 * A token-bucket implemented as generic cell rate algorithm, its whole state is a single timestamp.
+	 */
+	private static final class RateLimit extends Admission {
+		private final long interval, tolerance;
+		private final AtomicLong arrival = new AtomicLong(System.nanoTime());
+
+		private RateLimit(
+			 final long interval,
+			 final int burst
+		) {
+			this.interval = interval;
+			this.tolerance = interval * burst;
+		}
+
+		protected @Override boolean test() {
+			final long now = System.nanoTime();
+			long arrival, next;
+			do {
+				arrival = this.arrival.get();
+				next = (arrival - now > 0 ? arrival : now) + this.interval;
+				if (next - now > this.tolerance) return false;
+			} while (!this.arrival.compareAndSet(arrival, next));
+			return true;
+		}
+	}
+
+	/**
+	 * Admits every n-th event.
+	 */
+	private static final class OneIn extends Admission {
+		private final int n;
+		private final AtomicLong count = new AtomicLong();
+
+		private OneIn(final int n) {
+			this.n = n;
+		}
+
+		protected @Override boolean test() {
+			return this.count.getAndIncrement() % this.n == 0;
+		}
+	}
+
+	/**
+	 * Admits events with a fixed probability.
+	 */
+	private static final class Probability extends Admission {
+		private final double probability;
+
+		private Probability(final double probability) {
+			this.probability = probability;
+		}
+
+		protected @Override boolean test() {
+			return ThreadLocalRandom.current().nextDouble() < this.probability;
+		}
+	}
+}
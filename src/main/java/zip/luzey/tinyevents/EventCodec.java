@@ -0,0 +1,147 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The serialization-layer used by bridges that move events out of the current process.
+ *
+ * @param <E> The event-type of our codec.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+public interface EventCodec<E extends AbstractEvent> {
+	/**
+	 * Writes our event with relative puts, starting at the current position of the buffer.
+	 *
+	 * @param event  The event we want to write.
+	 * @param buffer The buffer we want to write into.
+	 *
+	 * @throws java.nio.BufferOverflowException if the event doesn't fit into the remaining buffer.
+	 */
+	void encode(final E event, final ByteBuffer buffer);
+
+	/**
+	 * Reads our event with relative gets, between the current position and the limit of the buffer.
+	 *
+	 * @param buffer The buffer we want to read from.
+	 *
+	 * @return The decoded event.
+	 */
+	E decode(final ByteBuffer buffer);
+
+	/**
+	 * Maps event-classes to stable type-ids and their codecs.<br>
+	 * Both sides of a bridge have to register the same ids for the same classes.
+	 */
+	@SuppressWarnings("unchecked")
+	final class Registry {
+		private final Map<Class<? extends AbstractEvent>, Entry<?>> byClass = new IdentityHashMap<>();
+		private final Map<Integer, Entry<?>> byId = new HashMap<>();
+
+		/**
+		 * @param id    The type-id written in front of every encoded event.
+		 * @param clazz The class of our events.
+		 * @param codec The codec we want to use for our events.
+		 * @param <E>   The type of our event.
+		 *
+		 * @return this registry for chaining.
+		 *
+		 * @throws IllegalArgumentException if the id or class is already registered.
+		 */
+		public <E extends AbstractEvent> Registry register(
+			 final int id,
+			 final Class<E> clazz,
+			 final EventCodec<E> codec
+		) {
+			if (this.byId.containsKey(id) || this.byClass.containsKey(clazz)) throw new IllegalArgumentException(String.format(
+				 "The codec %d for %s is already registered.",
+				 id, clazz.getName()
+			));
+			final Entry<E> entry = new Entry<>(id, clazz, codec);
+			this.byClass.put(clazz, entry);
+			this.byId.put(id, entry);
+			return this;
+		}
+
+		/**
+		 * @param clazz The class we want the entry from.
+		 * @param <E>   The type of our event.
+		 *
+		 * @return The entry or null if the class has no codec.
+		 */
+		public <E extends AbstractEvent> Entry<E> get(final Class<E> clazz) {
+			return (Entry<E>) this.byClass.get(clazz);
+		}
+
+		/**
+		 * @param id The type-id we want the entry from.
+		 *
+		 * @return The entry or null if the id has no codec.
+		 */
+		public Entry<? extends AbstractEvent> get(final int id) {
+			return this.byId.get(id);
+		}
+	}
+
+	/**
+	 * A registered codec together with its type-id and class.
+	 *
+	 * @param <E> The event-type of our codec.
+	 */
+	final class Entry<E extends AbstractEvent> {
+		private final int id;
+		private final Class<E> clazz;
+		private final EventCodec<E> codec;
+
+		Entry(
+			 final int id,
+			 final Class<E> clazz,
+			 final EventCodec<E> codec
+		) {
+			this.id = id;
+			this.clazz = clazz;
+			this.codec = codec;
+		}
+
+		/**
+		 * @return The type-id of our codec.
+		 */
+		public int id() {
+			return this.id;
+		}
+
+		/**
+		 * @return The event-class of our codec.
+		 */
+		public Class<E> clazz() {
+			return this.clazz;
+		}
+
+		/**
+		 * @return The codec itself.
+		 */
+		public EventCodec<E> codec() {
+			return this.codec;
+		}
+	}
+}
@@ -18,6 +18,10 @@ package zip.luzey.tinyevents;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 import java.util.function.Consumer;
 
 /**
@@ -57,6 +61,16 @@ public final class EventHandlers {
 			return 0;
 		}
 
+		/**
+		 * Marks handlers that wait on I/O or locks, they run on virtual threads when
+		 * {@link TinyEvents#setVirtualThreads(boolean) enabled}.
+		 *
+		 * @return true if our handler blocks.
+		 */
+		default boolean blocking() {
+			return false;
+		}
+
 		default @Override int compareTo(@NotNull EventHandlers.IHandler<E> handler) {
 			return Short.compare(handler.priority(), this.priority());
 		}
@@ -84,4 +98,54 @@ public final class EventHandlers {
 			this.handle(event);
 		}
 	}
+
+	/**
+	 * Marks a method of a listener-class as handler for the event-type of its only parameter.<br>
+	 * The annotation-processor of the {@code processor}-module generates an {@link IRegistrar registrar}
+	 * per listener-class from it, so no reflection is needed to wire the listener up.
+	 */
+	@Retention(RetentionPolicy.CLASS)
+	@Target(ElementType.METHOD)
+	public @interface Subscribe {
+		/**
+		 * @return The priority of the generated handler.
+		 *
+		 * @see IHandler#priority()
+		 */
+		short priority() default 0;
+	}
+
+	/**
+	 * Registers the handlers of a listener-class, usually generated from its {@link Subscribe subscribe}-methods.
+	 *
+	 * @param <L> The type of our listener.
+	 */
+	public interface IRegistrar<L> {
+		/**
+		 * @return The listener-class we register handlers for.
+		 */
+		Class<L> listener();
+
+		/**
+		 * Creates and registers the handlers of our listener.
+		 *
+		 * @param events   The event-manager we want to register to.
+		 * @param listener The listener whose methods our handlers call.
+		 *
+		 * @return A registration that unregisters all created handlers when closed.
+		 */
+		Registration register(final TinyEvents events, final L listener);
+
+		/**
+		 * The handlers registered by {@link IRegistrar#register(TinyEvents, Object)}.
+		 */
+		@FunctionalInterface
+		interface Registration extends AutoCloseable {
+			/**
+			 * Unregisters all handlers of this registration.
+			 */
+			@Override
+			void close();
+		}
+	}
 }
@@ -0,0 +1,239 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records which dispatch caused which, see {@link TinyEvents#setTracer(EventTracer)}.<br>
+ * Every traced dispatch becomes a {@link Span span} that links to the dispatch it was called from, tracked through a
+ * thread-local and carried over to {@link TinyEvents#callLater delayed calls} and parallel priority-tiers.
+ * Whole traces get sampled at their root, so a sampled trace is always complete.
+ * <p>
+ * Finished spans get written to a lock-free ring that keeps the latest {@code capacity} spans.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class EventTracer {
+	/**
+	 * Marks dispatches of traces that weren't sampled, so their children aren't sampled either.
+	 */
+	private static final Span UNSAMPLED = new Span(0, 0, 0, 0, null, 0);
+
+	private final ThreadLocal<Span[]> current = ThreadLocal.withInitial(() -> new Span[1]);
+	private final AtomicLong ids = new AtomicLong(), written = new AtomicLong();
+	private final AtomicReferenceArray<Span> ring;
+	private final int mask;
+	private final double sampleRate;
+
+	/**
+	 * @param capacity   The amount of spans we keep, rounded up to the next power of two.
+	 * @param sampleRate The share of root-dispatches we trace, from 0 to 1.
+	 */
+	public EventTracer(
+		 final int capacity,
+		 final double sampleRate
+	) {
+		if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("The capacity has to be between 1 and 2^30.");
+		if (!(sampleRate >= 0 && sampleRate <= 1)) throw new IllegalArgumentException("The sample-rate has to be between 0 and 1.");
+		this.ring = new AtomicReferenceArray<>(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+		this.mask = this.ring.length() - 1;
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * @return The span of the dispatch running on this thread or null if there is none or it isn't sampled.
+	 */
+	public Span current() {
+		final Span span = this.current.get()[0];
+		return span == UNSAMPLED ? null : span;
+	}
+
+	/**
+	 * @return The finished spans we still keep, from the oldest to the latest.
+	 */
+	public List<Span> spans() {
+		final long written = this.written.get();
+		final long from = Math.max(0, written - this.ring.length());
+		final List<Span> spans = new ArrayList<>((int) (written - from));
+		for (long index = from ; index < written ; index++) {
+			final Span span = this.ring.get((int) (index & this.mask));
+			if (span != null) spans.add(span);
+		}
+		return spans;
+	}
+
+	/**
+	 * @return The amount of spans we finished since creation, including the ones the ring dropped already.
+	 */
+	public long getRecorded() {
+		return this.written.get();
+	}
+
+	/**
+	 * Starts a span for a dispatch on this thread.
+	 *
+	 * @param clazz The class-group of our dispatched event.
+	 *
+	 * @return The span we have to restore in {@link EventTracer#exit(Span, int)}.
+	 */
+	Span enter(final Class<? extends AbstractEvent> clazz) {
+		final Span[] current = this.current.get();
+		final Span parent = current[0];
+		if (parent == null ? ThreadLocalRandom.current().nextDouble() < this.sampleRate : parent != UNSAMPLED) {
+			final long id = this.ids.incrementAndGet();
+			current[0] = parent == null
+			             ? new Span(id, 0, id, 0, clazz, System.nanoTime())
+			             : new Span(id, parent.id, parent.traceId, parent.depth + 1, clazz, System.nanoTime());
+		} else current[0] = UNSAMPLED;
+		return parent;
+	}
+
+	/**
+	 * Finishes the span of the dispatch on this thread and writes it to our ring.
+	 *
+	 * @param parent   The span returned by {@link EventTracer#enter(Class)}.
+	 * @param handlers The amount of handlers we called.
+	 */
+	void exit(
+		 final Span parent,
+		 final int handlers
+	) {
+		final Span[] current = this.current.get();
+		final Span span = current[0];
+		current[0] = parent;
+		if (span == null || span == UNSAMPLED) return;
+		span.duration = System.nanoTime() - span.start;
+		span.handlers = handlers;
+		this.ring.set((int) (this.written.getAndIncrement() & this.mask), span);
+	}
+
+	/**
+	 * @param task The task we want to run on another thread or later on.
+	 *
+	 * @return A task that runs with the span that is current on this thread right now.
+	 */
+	Runnable wrap(final Runnable task) {
+		final Span span = this.current.get()[0];
+		if (span == null) return task;
+		return () -> {
+			final Span[] current = this.current.get();
+			final Span previous = current[0];
+			current[0] = span;
+			try {
+				task.run();
+			} finally {
+				current[0] = previous;
+			}
+		};
+	}
+
+	/**
+	 * A traced dispatch.
+	 */
+	public static final class Span {
+		private final long id, parentId, traceId, start;
+		private final int depth;
+		private final Class<? extends AbstractEvent> clazz;
+		private long duration;
+		private int handlers;
+
+		private Span(
+			 final long id,
+			 final long parentId,
+			 final long traceId,
+			 final int depth,
+			 final Class<? extends AbstractEvent> clazz,
+			 final long start
+		) {
+			this.id = id;
+			this.parentId = parentId;
+			this.traceId = traceId;
+			this.depth = depth;
+			this.clazz = clazz;
+			this.start = start;
+		}
+
+		/**
+		 * @return The id of this dispatch.
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * @return The id of the dispatch that caused this one or 0 if this one is a root.
+		 */
+		public long getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * @return The id of the root-dispatch of our trace.
+		 */
+		public long getTraceId() {
+			return this.traceId;
+		}
+
+		/**
+		 * @return The amount of dispatches between the root and this one, a steadily growing depth hints at a feedback-loop.
+		 */
+		public int getDepth() {
+			return this.depth;
+		}
+
+		/**
+		 * @return The class-group of our dispatched event.
+		 */
+		public Class<? extends AbstractEvent> getClazz() {
+			return this.clazz;
+		}
+
+		/**
+		 * @return The {@link System#nanoTime()} our dispatch started at.
+		 */
+		public long getStart() {
+			return this.start;
+		}
+
+		/**
+		 * @return The nanoseconds our dispatch took, including the dispatches it caused on the same thread.
+		 */
+		public long getDuration() {
+			return this.duration;
+		}
+
+		/**
+		 * @return The amount of handlers we called.
+		 */
+		public int getHandlers() {
+			return this.handlers;
+		}
+
+		public @Override String toString() {
+			return "Span[id='" + this.id + "', parent='" + this.parentId + "', trace='" + this.traceId
+			       + "', depth='" + this.depth + "', class='" + this.clazz.getName()
+			       + "', duration='" + this.duration + "', handlers='" + this.handlers + "']";
+		}
+	}
+}
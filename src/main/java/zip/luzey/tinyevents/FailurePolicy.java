@@ -0,0 +1,95 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines how {@link TinyEvents} treats handlers that keep throwing.<br>
+ * After {@link FailurePolicy#threshold()} consecutive failures a handler gets disabled and re-enabled for a single
+ * probe after {@link FailurePolicy#probeDelay()}. Every failed probe doubles the delay up to
+ * {@link FailurePolicy#maxProbeDelay()}, a successful call resets it.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class FailurePolicy {
+	/**
+	 * Disables a handler after 5 consecutive failures, probes it again after a second (up to a minute)
+	 * and reports at most one error per handler and second.
+	 */
+	public static final FailurePolicy DEFAULT = new FailurePolicy(
+		 5,
+		 1, 60, 1,
+		 TimeUnit.SECONDS
+	);
+
+	private final int threshold;
+	private final long probeDelay, maxProbeDelay, reportInterval;
+
+	/**
+	 * @param threshold      The amount of consecutive failures after which a handler gets disabled.
+	 * @param probeDelay     The time after which a disabled handler gets probed again.
+	 * @param maxProbeDelay  The upper bound of our doubling probe-delay.
+	 * @param reportInterval The minimum time between two errors reported for the same handler.
+	 * @param unit           The unit of all times.
+	 */
+	public FailurePolicy(
+		 final int threshold,
+		 final long probeDelay,
+		 final long maxProbeDelay,
+		 final long reportInterval,
+		 final TimeUnit unit
+	) {
+		if (threshold < 1) throw new IllegalArgumentException("The threshold has to be positive.");
+		if (probeDelay < 0 || maxProbeDelay < probeDelay || reportInterval < 0)
+			throw new IllegalArgumentException("The delays have to be positive and the max-delay can't be lower than the delay.");
+		this.threshold = threshold;
+		this.probeDelay = unit.toNanos(probeDelay);
+		this.maxProbeDelay = unit.toNanos(maxProbeDelay);
+		this.reportInterval = unit.toNanos(reportInterval);
+	}
+
+	/**
+	 * @return The amount of consecutive failures after which a handler gets disabled.
+	 */
+	public int threshold() {
+		return this.threshold;
+	}
+
+	/**
+	 * @return The initial probe-delay in nanoseconds.
+	 */
+	public long probeDelay() {
+		return this.probeDelay;
+	}
+
+	/**
+	 * @return The maximum probe-delay in nanoseconds.
+	 */
+	public long maxProbeDelay() {
+		return this.maxProbeDelay;
+	}
+
+	/**
+	 * @return The minimum time between two reported errors of a handler in nanoseconds.
+	 */
+	public long reportInterval() {
+		return this.reportInterval;
+	}
+}
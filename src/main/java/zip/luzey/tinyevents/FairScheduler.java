@@ -0,0 +1,259 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls events asynchronously with a queue per class-group, so a flooding class-group can't starve the others.<br>
+ * The queues get served by weighted deficit-round-robin: every round a class-group may call as many events as its
+ * weight, unused turns are dropped once its queue runs empty. Events of the same class-group are called in order.
+ * <p>
+ * Without an explicit {@link FairScheduler#setWeight(Class, int) weight} a class-group gets
+ * {@code 1 + priority} turns per round, where priority is the highest one of its handlers clamped to
+ * {@code 0..}{@link FairScheduler#MAX_WEIGHT}{@code - 1}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class FairScheduler implements AutoCloseable {
+	/**
+	 * The highest weight derived from handler-priorities.
+	 */
+	public static final int MAX_WEIGHT = 64;
+
+	private final TinyEvents events;
+	private final Executor executor;
+	private final int parallelism, capacity;
+
+	private final Map<Class<? extends AbstractEvent>, ClassQueue> queues = new ConcurrentHashMap<>();
+	private final ArrayDeque<ClassQueue> active = new ArrayDeque<>();
+	private final AtomicInteger drainers = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+	private volatile boolean closed;
+
+	/**
+	 * @param events      The event-manager we call our events on.
+	 * @param executor    The executor our drainers run on.
+	 * @param parallelism The maximum amount of drainers running at once.
+	 * @param capacity    The maximum amount of queued events per class-group.
+	 */
+	public FairScheduler(
+		 final TinyEvents events,
+		 final Executor executor,
+		 final int parallelism,
+		 final int capacity
+	) {
+		if (parallelism < 1 || capacity < 1) throw new IllegalArgumentException("The parallelism and capacity have to be positive.");
+		this.events = events;
+		this.executor = executor;
+		this.parallelism = parallelism;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Queues an event to be called on our executor.
+	 *
+	 * @param event The event we want to call.
+	 * @param <E>   The type of our event.
+	 *
+	 * @return false if we are closed or the queue of its class-group is full.
+	 */
+	public <E extends AbstractEvent> boolean submit(final E event) {
+		final ClassQueue queue = this.queue(event.getClass());
+		if (this.closed || queue.size.incrementAndGet() > this.capacity) {
+			queue.size.decrementAndGet();
+			this.rejected.increment();
+			return false;
+		}
+
+		final EventTracer tracer = this.events.getTracer();
+		queue.events.offer(tracer == null ? event : tracer.wrap(() -> this.events.call(event)));
+		if (queue.scheduled.compareAndSet(false, true)) this.activate(queue);
+		return true;
+	}
+
+	/**
+	 * Sets how many events of a class-group get called per round.
+	 *
+	 * @param clazz  The class-group we want to weight.
+	 * @param weight The weight of our class-group or 0 to derive it from the priority of its handlers again.
+	 */
+	public void setWeight(
+		 final Class<? extends AbstractEvent> clazz,
+		 final int weight
+	) {
+		if (weight < 0) throw new IllegalArgumentException("The weight can't be negative.");
+		this.queue(clazz).weight = weight;
+	}
+
+	/**
+	 * @param clazz The class-group we want the weight of.
+	 *
+	 * @return The explicit or derived weight of our class-group.
+	 */
+	public int getWeight(final Class<? extends AbstractEvent> clazz) {
+		final ClassQueue queue = this.queues.get(clazz);
+		return queue == null ? this.derive(clazz) : this.weight(queue);
+	}
+
+	/**
+	 * @param clazz The class-group we want to check.
+	 *
+	 * @return The amount of queued events of our class-group.
+	 */
+	public int getPending(final Class<? extends AbstractEvent> clazz) {
+		final ClassQueue queue = this.queues.get(clazz);
+		return queue == null ? 0 : queue.size.get();
+	}
+
+	/**
+	 * @return The amount of events we rejected since creation.
+	 */
+	public long getRejected() {
+		return this.rejected.sum();
+	}
+
+	/**
+	 * Rejects all further events, already queued events still get called.
+	 */
+	public @Override void close() {
+		this.closed = true;
+	}
+
+	/**
+	 * @param clazz The class-group we want the queue of.
+	 *
+	 * @return The queue of our class-group.
+	 */
+	private ClassQueue queue(final Class<? extends AbstractEvent> clazz) {
+		final ClassQueue queue = this.queues.get(clazz);
+		return queue != null ? queue : this.queues.computeIfAbsent(clazz, ClassQueue::new);
+	}
+
+	/**
+	 * Appends a queue to our round and starts a drainer if we have less than our parallelism.<br>
+	 * A drainer our executor rejects runs on the calling thread instead.
+	 *
+	 * @param queue The queue that got events.
+	 */
+	private void activate(final ClassQueue queue) {
+		synchronized (this.active) {
+			this.active.addLast(queue);
+		}
+		int drainers;
+		do {
+			drainers = this.drainers.get();
+			if (drainers >= this.parallelism) return;
+		} while (!this.drainers.compareAndSet(drainers, drainers + 1));
+
+		try {
+			this.executor.execute(this::drain);
+		} catch (final RejectedExecutionException exception) {
+			this.drain();
+		}
+	}
+
+	/**
+	 * Serves our round until no queue has events left.<br>
+	 * A queue is taken out of the round while it gets served, so a class-group is never called by two drainers at once.
+	 */
+	private void drain() {
+		while (true) {
+			final ClassQueue queue;
+			synchronized (this.active) {
+				queue = this.active.pollFirst();
+			}
+			if (queue == null) {
+				this.drainers.decrementAndGet();
+				synchronized (this.active) {
+					if (this.active.isEmpty()) return;
+				}
+				final int drainers = this.drainers.incrementAndGet();
+				if (drainers > this.parallelism) {
+					this.drainers.decrementAndGet();
+					return;
+				}
+				continue;
+			}
+
+			queue.deficit += this.weight(queue);
+			Object item;
+			while (queue.deficit > 0 && (item = queue.events.poll()) != null) {
+				queue.size.decrementAndGet();
+				queue.deficit--;
+				if (item instanceof AbstractEvent event) this.events.call(event);
+				else ((Runnable) item).run();
+			}
+
+			if (queue.events.isEmpty()) {
+				queue.deficit = 0;
+				queue.scheduled.set(false);
+				if (queue.events.isEmpty() || !queue.scheduled.compareAndSet(false, true)) continue;
+			}
+			synchronized (this.active) {
+				this.active.addLast(queue);
+			}
+		}
+	}
+
+	/**
+	 * @param queue The queue we want the weight of.
+	 *
+	 * @return The explicit weight of our queue or the one derived from its handlers.
+	 */
+	private int weight(final ClassQueue queue) {
+		final int weight = queue.weight;
+		return weight != 0 ? weight : this.derive(queue.clazz);
+	}
+
+	/**
+	 * @param clazz The class-group we want the weight of.
+	 *
+	 * @return The weight derived from the highest priority of the class-group.
+	 */
+	private int derive(final Class<? extends AbstractEvent> clazz) {
+		return 1 + Math.max(0, Math.min(MAX_WEIGHT - 1, this.events.highestPriority(clazz)));
+	}
+
+	/**
+	 * The queue and round-state of a single class-group.
+	 */
+	private static final class ClassQueue {
+		private final Class<? extends AbstractEvent> clazz;
+		private final ConcurrentLinkedQueue<Object> events = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger size = new AtomicInteger();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile int weight;
+
+		// only touched by the drainer that took our queue out of the round.
+		private int deficit;
+
+		private ClassQueue(final Class<? extends AbstractEvent> clazz) {
+			this.clazz = clazz;
+		}
+	}
+}
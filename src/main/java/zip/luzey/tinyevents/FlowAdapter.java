@@ -0,0 +1,351 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import zip.luzey.tinyevents.EventHandlers.IHandler;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bridges {@link TinyEvents} and {@link Flow reactive-streams} in both directions while keeping backpressure.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class FlowAdapter {
+	/**
+	 * The default amount of events a {@link FlowAdapter#subscriber(TinyEvents, Consumer) subscriber} requests at once.
+	 */
+	public static final int DEFAULT_BATCH = 256;
+
+	private FlowAdapter() {
+	}
+
+	/**
+	 * Decides what happens when a subscriber-buffer is full and another event arrives.
+	 */
+	public enum Overflow {
+		/**
+		 * Drops the oldest buffered event.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Drops the arriving event.
+		 */
+		DROP_LATEST,
+		/**
+		 * Cancels the subscription and signals an error to the subscriber.
+		 */
+		ERROR
+	}
+
+	/**
+	 * Exposes a class-group of our event-manager as publisher.<br>
+	 * Every subscriber gets its own handler and buffer, events only get delivered as far as the subscriber requested them.
+	 *
+	 * @param events     The event-manager we want to publish from.
+	 * @param clazz      The class-group we want to publish.
+	 * @param bufferSize The maximum amount of events buffered per subscriber.
+	 * @param overflow   What happens when a buffer is full.
+	 * @param <E>        The type of our event.
+	 *
+	 * @return A publisher that completes all subscribers when closed.
+	 */
+	public static <E extends AbstractEvent> EventPublisher<E> publisher(
+		 final TinyEvents events,
+		 final Class<E> clazz,
+		 final int bufferSize,
+		 final Overflow overflow
+	) {
+		if (bufferSize < 1) throw new IllegalArgumentException("The buffer-size has to be positive.");
+		return new EventPublisher<>(events, clazz, bufferSize, Objects.requireNonNull(overflow));
+	}
+
+	/**
+	 * Creates a subscriber with a {@link FlowAdapter#DEFAULT_BATCH default batch}.
+	 *
+	 * @param events  The event-manager we want to call the received events on.
+	 * @param onError The error-handler for errors signaled by the publisher.
+	 * @param <E>     The type of our event.
+	 *
+	 * @return A subscriber that calls every received event.
+	 */
+	public static <E extends AbstractEvent> Flow.Subscriber<E> subscriber(
+		 final TinyEvents events,
+		 final Consumer<Throwable> onError
+	) {
+		return subscriber(events, DEFAULT_BATCH, onError);
+	}
+
+	/**
+	 * Creates a subscriber that feeds a publisher into {@link TinyEvents#call(AbstractEvent)}.<br>
+	 * It requests a batch up front and requests more once half of it is called,
+	 * so a slow event-manager slows the publisher down instead of queueing up.
+	 *
+	 * @param events  The event-manager we want to call the received events on.
+	 * @param batch   The amount of events we request at once.
+	 * @param onError The error-handler for errors signaled by the publisher.
+	 * @param <E>     The type of our event.
+	 *
+	 * @return A subscriber that calls every received event.
+	 */
+	public static <E extends AbstractEvent> Flow.Subscriber<E> subscriber(
+		 final TinyEvents events,
+		 final int batch,
+		 final Consumer<Throwable> onError
+	) {
+		if (batch < 1) throw new IllegalArgumentException("The batch has to be positive.");
+		return new Flow.Subscriber<>() {
+			private final int refill = Math.max(1, batch >> 1);
+			private Flow.Subscription subscription;
+			private int received;
+
+			public @Override void onSubscribe(final Flow.Subscription subscription) {
+				if (this.subscription != null) {
+					subscription.cancel();
+					return;
+				}
+				this.subscription = subscription;
+				subscription.request(batch);
+			}
+
+			public @Override void onNext(final E event) {
+				events.call(event);
+				if (++this.received == this.refill) {
+					this.received = 0;
+					this.subscription.request(this.refill);
+				}
+			}
+
+			public @Override void onError(final Throwable throwable) {
+				onError.accept(throwable);
+			}
+
+			public @Override void onComplete() {
+			}
+		};
+	}
+
+	/**
+	 * The publisher returned by {@link FlowAdapter#publisher(TinyEvents, Class, int, Overflow)}.
+	 *
+	 * @param <E> The type of our event.
+	 */
+	public static final class EventPublisher<E extends AbstractEvent> implements Flow.Publisher<E>, AutoCloseable {
+		private final TinyEvents events;
+		private final Class<E> clazz;
+		private final int bufferSize;
+		private final Overflow overflow;
+		private final Set<EventSubscription<E>> subscriptions = new CopyOnWriteArraySet<>();
+		private volatile boolean closed;
+
+		private EventPublisher(
+			 final TinyEvents events,
+			 final Class<E> clazz,
+			 final int bufferSize,
+			 final Overflow overflow
+		) {
+			this.events = events;
+			this.clazz = clazz;
+			this.bufferSize = bufferSize;
+			this.overflow = overflow;
+		}
+
+		public @Override void subscribe(final Flow.Subscriber<? super E> subscriber) {
+			final EventSubscription<E> subscription = new EventSubscription<>(this, subscriber);
+			subscriber.onSubscribe(subscription);
+			if (this.closed) {
+				subscription.complete();
+				return;
+			}
+			this.subscriptions.add(subscription);
+			this.events.register(this.clazz, subscription);
+			if (subscription.cancelled) this.remove(subscription);
+		}
+
+		/**
+		 * @return The amount of active subscriptions.
+		 */
+		public int subscriptions() {
+			return this.subscriptions.size();
+		}
+
+		/**
+		 * Unregisters all subscriptions and completes them once their buffers are drained.
+		 */
+		public @Override void close() {
+			this.closed = true;
+			for (final EventSubscription<E> subscription : this.subscriptions) subscription.complete();
+		}
+
+		/**
+		 * @param subscription The subscription we want to remove.
+		 */
+		private void remove(final EventSubscription<E> subscription) {
+			if (this.subscriptions.remove(subscription)) this.events.unregister(this.clazz, subscription);
+		}
+	}
+
+	/**
+	 * A subscription which is registered as handler and buffers events until they get requested.
+	 *
+	 * @param <E> The type of our event.
+	 */
+	private static final class EventSubscription<E extends AbstractEvent> implements Flow.Subscription, IHandler<E> {
+		private final EventPublisher<E> publisher;
+		private final Flow.Subscriber<? super E> subscriber;
+		private final ArrayDeque<E> buffer;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger work = new AtomicInteger();
+
+		private volatile boolean cancelled, completed;
+		private volatile Throwable error;
+
+		private EventSubscription(
+			 final EventPublisher<E> publisher,
+			 final Flow.Subscriber<? super E> subscriber
+		) {
+			this.publisher = publisher;
+			this.subscriber = subscriber;
+			this.buffer = new ArrayDeque<>(Math.min(publisher.bufferSize, 1 << 10));
+		}
+
+		public @Override void handle(E event) {
+			if (this.cancelled || this.completed) return;
+			synchronized (this.buffer) {
+				if (this.buffer.size() == this.publisher.bufferSize) {
+					if (this.publisher.overflow == Overflow.DROP_LATEST) return;
+					if (this.publisher.overflow == Overflow.DROP_OLDEST) this.buffer.poll();
+				}
+				if (this.buffer.size() < this.publisher.bufferSize) {
+					this.buffer.offer(event);
+					event = null;
+				}
+			}
+			if (event != null) this.fail(new IllegalStateException(String.format(
+				 "The buffer of %d events for %s overflowed.",
+				 this.publisher.bufferSize, this.publisher.clazz.getName()
+			)));
+			else this.drain();
+		}
+
+		public @Override void request(final long count) {
+			if (count <= 0) {
+				this.fail(new IllegalArgumentException("Non-positive request: " + count));
+				return;
+			}
+			long current, updated;
+			do {
+				current = this.requested.get();
+				if (current == Long.MAX_VALUE) break;
+				updated = current + count;
+				if (updated < 0) updated = Long.MAX_VALUE;
+			} while (!this.requested.compareAndSet(current, updated));
+			this.drain();
+		}
+
+		public @Override void cancel() {
+			this.cancelled = true;
+			this.publisher.remove(this);
+			this.drain();
+		}
+
+		/**
+		 * Completes this subscription after the buffered events got delivered.
+		 */
+		private void complete() {
+			this.completed = true;
+			this.publisher.remove(this);
+			this.drain();
+		}
+
+		/**
+		 * Cancels this subscription and signals the error to our subscriber.
+		 *
+		 * @param throwable The error we want to signal.
+		 */
+		private void fail(final Throwable throwable) {
+			this.error = throwable;
+			this.publisher.remove(this);
+			this.drain();
+		}
+
+		/**
+		 * Delivers buffered events as far as requested, only one thread at a time gets to deliver.
+		 */
+		private void drain() {
+			if (this.work.getAndIncrement() != 0) return;
+			int missed = 1;
+			do {
+				if (this.terminated()) return;
+
+				final long requested = this.requested.get();
+				long emitted = 0;
+				while (emitted != requested) {
+					final E event;
+					synchronized (this.buffer) {
+						event = this.buffer.poll();
+					}
+					if (event == null) break;
+					this.subscriber.onNext(event);
+					emitted++;
+					if (this.terminated()) return;
+				}
+				if (emitted != 0 && requested != Long.MAX_VALUE) this.requested.addAndGet(-emitted);
+
+				if (this.completed && !this.cancelled) {
+					final boolean empty;
+					synchronized (this.buffer) {
+						empty = this.buffer.isEmpty();
+					}
+					if (empty) {
+						this.cancelled = true;
+						this.subscriber.onComplete();
+						return;
+					}
+				}
+				missed = this.work.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		/**
+		 * Clears our buffer and signals a pending error once we got cancelled or failed.
+		 *
+		 * @return true if nothing must get delivered anymore.
+		 */
+		private boolean terminated() {
+			if (!this.cancelled && this.error == null) return false;
+			synchronized (this.buffer) {
+				this.buffer.clear();
+			}
+			final Throwable error = this.error;
+			if (error != null && !this.cancelled) {
+				this.cancelled = true;
+				this.subscriber.onError(error);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import zip.luzey.tinyevents.EventHandlers.IHandler;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group of handlers that gets muted and unmuted as a whole, created by {@link TinyEvents#group()}.<br>
+ * Switching a group only marks it, the next {@link TinyEvents#call(AbstractEvent) call} rebuilds the handler-arrays of
+ * all affected class-groups at once. Calls keep iterating only the active handlers, so muted handlers cost nothing
+ * and toggling many times between two calls costs a single rebuild at most.
+ * <p>
+ * Unmuted handlers are called after other handlers of equal priority.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class HandlerGroup {
+	private final TinyEvents events;
+
+	// guarded by our event-manager, the order keeps the registration-order for unmuting.
+	final Map<IHandler<? extends AbstractEvent>, Class<? extends AbstractEvent>> members = new IdentityHashMap<>();
+	final List<IHandler<? extends AbstractEvent>> order = new ArrayList<>();
+	boolean enabled = true, applied = true, queued;
+
+	HandlerGroup(final TinyEvents events) {
+		this.events = events;
+	}
+
+	/**
+	 * @param handler The handler we want to add.
+	 * @param clazz   The class-group of our handler.
+	 */
+	void add(
+		 final IHandler<? extends AbstractEvent> handler,
+		 final Class<? extends AbstractEvent> clazz
+	) {
+		if (this.members.put(handler, clazz) == null) this.order.add(handler);
+	}
+
+	/**
+	 * @param handler The handler we want to remove.
+	 */
+	void remove(final IHandler<? extends AbstractEvent> handler) {
+		if (this.members.remove(handler) == null) return;
+		for (int index = this.order.size() - 1 ; index >= 0 ; index--) {
+			if (this.order.get(index) == handler) {
+				this.order.remove(index);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Registers a handler to our event-manager as member of this group.<br>
+	 * Handlers registered while the group is disabled stay muted until it gets enabled.
+	 *
+	 * @param clazz   The class-group of our handler.
+	 * @param handler The handler we want to add.
+	 * @param <H>     The type of the handler.
+	 * @param <E>     The type of the event for our handler.
+	 *
+	 * @return This group.
+	 */
+	public <H extends IHandler<E>, E extends AbstractEvent> HandlerGroup register(
+		 final Class<E> clazz,
+		 final H handler
+	) {
+		this.events.register(this, clazz, handler);
+		return this;
+	}
+
+	/**
+	 * Removes a handler from our event-manager, muted or not.
+	 *
+	 * @param clazz   The class-group of our handler.
+	 * @param handler The handler we want to remove.
+	 * @param <H>     The type of the handler.
+	 * @param <E>     The type of the event for our handler.
+	 */
+	public <H extends IHandler<E>, E extends AbstractEvent> void unregister(
+		 final Class<E> clazz,
+		 final H handler
+	) {
+		this.events.unregister(clazz, handler);
+	}
+
+	/**
+	 * Mutes or unmutes all handlers of this group from the next call on.
+	 *
+	 * @param enabled Whether our handlers should be called.
+	 */
+	public void setEnabled(final boolean enabled) {
+		this.events.toggle(this, enabled);
+	}
+
+	/**
+	 * @return true if our handlers get called.
+	 */
+	public boolean isEnabled() {
+		synchronized (this.events) {
+			return this.enabled;
+		}
+	}
+
+	/**
+	 * @return The amount of handlers in this group.
+	 */
+	public int size() {
+		synchronized (this.events) {
+			return this.members.size();
+		}
+	}
+}
@@ -0,0 +1,611 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import zip.luzey.tinyevents.EventHandlers.IHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Forwards events between nodes over TCP or unix-domain sockets.<br>
+ * Every event gets written as frame of {@code [int length][int type-id][payload]},
+ * where the length covers the type-id and the payload.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class NetworkBridge {
+	/**
+	 * The default maximum size of an encoded event in bytes.
+	 */
+	public static final int DEFAULT_FRAME_SIZE = 1 << 12;
+
+	/**
+	 * The default size of the write-batch of a {@link Sender sender} in bytes.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+
+	private static final int FRAME_HEADER_SIZE = 8;
+	private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+	private NetworkBridge() {
+	}
+
+	/**
+	 * Creates a sender with the {@link NetworkBridge#DEFAULT_FRAME_SIZE default frame-size}
+	 * and {@link NetworkBridge#DEFAULT_BATCH_SIZE default batch-size}.
+	 *
+	 * @param address The address of the {@link Receiver receiver} we want to send to.
+	 * @param codecs  The codecs for all event-classes we want to transfer.
+	 * @param onError The error-handler for codec- and connection-errors.
+	 *
+	 * @return A sender that connects in the background.
+	 */
+	public static Sender connect(
+		 final SocketAddress address,
+		 final EventCodec.Registry codecs,
+		 final Consumer<Throwable> onError
+	) {
+		return connect(address, codecs, onError, DEFAULT_FRAME_SIZE, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param address   The address of the {@link Receiver receiver} we want to send to.
+	 * @param codecs    The codecs for all event-classes we want to transfer.
+	 * @param onError   The error-handler for codec- and connection-errors.
+	 * @param frameSize The maximum size of an encoded event in bytes.
+	 * @param batchSize The amount of bytes we coalesce into a single write.
+	 *
+	 * @return A sender that connects in the background.
+	 */
+	public static Sender connect(
+		 final SocketAddress address,
+		 final EventCodec.Registry codecs,
+		 final Consumer<Throwable> onError,
+		 final int frameSize,
+		 final int batchSize
+	) {
+		if (frameSize <= 0 || batchSize < frameSize + FRAME_HEADER_SIZE)
+			throw new IllegalArgumentException("The batch-size has to fit at least one frame.");
+		return new Sender(address, codecs, onError, frameSize, batchSize);
+	}
+
+	/**
+	 * Creates a receiver with the {@link NetworkBridge#DEFAULT_FRAME_SIZE default frame-size}.
+	 *
+	 * @param address The address we want to bind to.
+	 * @param target  The event-manager we want to dispatch into.
+	 * @param codecs  The codecs for all event-classes we want to transfer.
+	 * @param onError The error-handler for codec- and connection-errors.
+	 *
+	 * @return A receiver that accepts connections in the background.
+	 *
+	 * @throws IOException if we couldn't bind to our address.
+	 */
+	public static Receiver listen(
+		 final SocketAddress address,
+		 final TinyEvents target,
+		 final EventCodec.Registry codecs,
+		 final Consumer<Throwable> onError
+	) throws IOException {
+		return listen(address, target, codecs, onError, DEFAULT_FRAME_SIZE);
+	}
+
+	/**
+	 * @param address   The address we want to bind to.
+	 * @param target    The event-manager we want to dispatch into.
+	 * @param codecs    The codecs for all event-classes we want to transfer.
+	 * @param onError   The error-handler for codec- and connection-errors.
+	 * @param frameSize The maximum size of an encoded event in bytes.
+	 *
+	 * @return A receiver that accepts connections in the background.
+	 *
+	 * @throws IOException if we couldn't bind to our address.
+	 */
+	public static Receiver listen(
+		 final SocketAddress address,
+		 final TinyEvents target,
+		 final EventCodec.Registry codecs,
+		 final Consumer<Throwable> onError,
+		 final int frameSize
+	) throws IOException {
+		return new Receiver(address, target, codecs, onError, frameSize);
+	}
+
+	/**
+	 * The outbound side of our bridge.<br>
+	 * Events get encoded by the calling thread into a batch, which a writer-thread swaps out and writes with
+	 * as few syscalls as possible. While disconnected, events stay in the batch until it is full.
+	 */
+	public static final class Sender implements AutoCloseable {
+		private final SocketAddress address;
+		private final EventCodec.Registry codecs;
+		private final Consumer<Throwable> onError;
+		private final int frameSize;
+
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition filled = this.lock.newCondition(), drained = this.lock.newCondition();
+		private ByteBuffer pending, flushing;
+		private long dropped;
+
+		private final Thread writer;
+		private volatile boolean open = true, connected;
+		private SocketChannel channel;
+		private Selector selector;
+
+		private Sender(
+			 final SocketAddress address,
+			 final EventCodec.Registry codecs,
+			 final Consumer<Throwable> onError,
+			 final int frameSize,
+			 final int batchSize
+		) {
+			this.address = address;
+			this.codecs = codecs;
+			this.onError = onError;
+			this.frameSize = frameSize;
+			this.pending = ByteBuffer.allocateDirect(batchSize);
+			this.flushing = ByteBuffer.allocateDirect(batchSize);
+			this.writer = new Thread(this::run, "TinyEvents-NetworkBridge-Sender");
+			this.writer.setDaemon(true);
+			this.writer.start();
+		}
+
+		/**
+		 * Registers a handler on our source that sends every event of the given class.<br>
+		 * The handler has the lowest priority, so local handlers see the event first.
+		 *
+		 * @param source The event-manager we want to forward from.
+		 * @param clazz  The class-group we want to forward.
+		 * @param <E>    The type of our event.
+		 *
+		 * @return The registered handler, so it can be unregistered again.
+		 *
+		 * @throws IllegalArgumentException if the class has no codec.
+		 */
+		public <E extends AbstractEvent> IHandler<E> forward(
+			 final TinyEvents source,
+			 final Class<E> clazz
+		) {
+			if (this.codecs.get(clazz) == null) throw new IllegalArgumentException(String.format(
+				 "The class %s has no codec.",
+				 clazz.getName()
+			));
+			final IHandler<E> handler = new IHandler<>() {
+				public @Override void handle(final E event) {
+					Sender.this.publish(event);
+				}
+
+				public @Override short priority() {
+					return Short.MIN_VALUE;
+				}
+			};
+			source.register(clazz, handler);
+			return handler;
+		}
+
+		/**
+		 * Appends our event to the current batch.<br>
+		 * Blocks while the batch is full and we are connected, drops the event when we are not.
+		 *
+		 * @param event The event we want to send.
+		 * @param <E>   The type of our event.
+		 *
+		 * @return true if the event got queued for sending.
+		 */
+		@SuppressWarnings("unchecked")
+		public <E extends AbstractEvent> boolean publish(final E event) {
+			final EventCodec.Entry<E> entry = this.codecs.get((Class<E>) event.getClass());
+			if (entry == null) {
+				this.onError.accept(new IllegalArgumentException(String.format(
+					 "The class %s has no codec.",
+					 event.getClass().getName()
+				)));
+				return false;
+			}
+
+			this.lock.lock();
+			try {
+				while (this.pending.remaining() < this.frameSize + FRAME_HEADER_SIZE) {
+					if (!this.open) return false;
+					if (!this.connected) {
+						this.dropped++;
+						return false;
+					}
+					this.drained.awaitUninterruptibly();
+				}
+				if (!this.open) return false;
+
+				final ByteBuffer batch = this.pending;
+				final boolean empty = batch.position() == 0;
+				final int start = batch.position(), limit = batch.limit();
+				batch.position(start + FRAME_HEADER_SIZE).limit(start + FRAME_HEADER_SIZE + this.frameSize);
+				try {
+					entry.codec().encode(event, batch);
+				} catch (final RuntimeException exception) {
+					// a half-written frame would break the whole connection, so drop it before the writer sees it.
+					batch.limit(limit).position(start);
+					this.onError.accept(exception instanceof BufferOverflowException ? new IllegalArgumentException(String.format(
+						 "The event %s doesn't fit into %d bytes.",
+						 event, this.frameSize
+					), exception) : exception);
+					return false;
+				}
+				batch.limit(limit);
+				batch.putInt(start, batch.position() - start - Integer.BYTES);
+				batch.putInt(start + Integer.BYTES, entry.id());
+				if (empty) this.filled.signal();
+				return true;
+			} finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * @return true if the writer-thread currently has a connection.
+		 */
+		public boolean connected() {
+			return this.connected;
+		}
+
+		/**
+		 * Writes the remaining batch if we are connected and stops the writer-thread.
+		 */
+		public @Override void close() {
+			this.lock.lock();
+			try {
+				this.open = false;
+				this.filled.signalAll();
+				this.drained.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+			try {
+				this.writer.join(TimeUnit.NANOSECONDS.toMillis(MAX_BACKOFF_NANOS));
+			} catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+			this.disconnect(null);
+		}
+
+		/**
+		 * The loop of our writer-thread.
+		 */
+		private void run() {
+			long backoff = MIN_BACKOFF_NANOS;
+			while (this.open || this.connected) {
+				if (!this.connected) {
+					if (!this.open) return;
+					if (this.connect()) {
+						backoff = MIN_BACKOFF_NANOS;
+					} else {
+						this.sleep(backoff);
+						backoff = Math.min(backoff << 1, MAX_BACKOFF_NANOS);
+					}
+					continue;
+				}
+
+				this.lock.lock();
+				try {
+					while (this.pending.position() == 0) {
+						if (!this.open) return;
+						this.filled.awaitUninterruptibly();
+					}
+					final ByteBuffer batch = this.pending;
+					this.pending = this.flushing;
+					this.flushing = batch;
+					this.drained.signalAll();
+				} finally {
+					this.lock.unlock();
+				}
+
+				try {
+					this.write(this.flushing.flip());
+				} catch (final IOException exception) {
+					this.disconnect(exception);
+				} finally {
+					this.flushing.clear();
+				}
+			}
+		}
+
+		/**
+		 * @return true if we are connected now.
+		 */
+		private boolean connect() {
+			SocketChannel channel = null;
+			try {
+				channel = SocketChannel.open(this.address);
+				if (this.address instanceof InetSocketAddress) channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				channel.configureBlocking(false);
+				this.selector = Selector.open();
+				channel.register(this.selector, 0);
+				this.channel = channel;
+			} catch (final IOException exception) {
+				if (channel != null) {
+					try {
+						channel.close();
+					} catch (final IOException ignored) {
+					}
+				}
+				return false;
+			}
+
+			this.lock.lock();
+			try {
+				this.connected = true;
+				if (this.dropped > 0) this.onError.accept(new IllegalStateException(String.format(
+					 "Dropped %d events while disconnected from %s.",
+					 this.dropped, this.address
+				)));
+				this.dropped = 0;
+			} finally {
+				this.lock.unlock();
+			}
+			return true;
+		}
+
+		/**
+		 * Writes the whole buffer and waits for the socket to become writable when its send-buffer is full.
+		 *
+		 * @param buffer The batch we want to write.
+		 *
+		 * @throws IOException if the connection broke.
+		 */
+		private void write(final ByteBuffer buffer) throws IOException {
+			// close() disconnects us after its timeout, even while we are still writing here.
+			final SocketChannel channel = this.channel;
+			final Selector selector = this.selector;
+			try {
+				final SelectionKey key = channel.keyFor(selector);
+				while (buffer.hasRemaining()) {
+					if (channel.write(buffer) > 0) continue;
+					key.interestOps(SelectionKey.OP_WRITE);
+					selector.select(TimeUnit.NANOSECONDS.toMillis(MAX_BACKOFF_NANOS));
+					selector.selectedKeys().clear();
+					key.interestOps(0);
+				}
+			} catch (final ClosedSelectorException | CancelledKeyException exception) {
+				throw new ClosedChannelException();
+			}
+		}
+
+		/**
+		 * Closes our current connection.
+		 *
+		 * @param cause The error that broke our connection, or null if we closed it ourselves.
+		 */
+		private void disconnect(final IOException cause) {
+			this.lock.lock();
+			try {
+				this.connected = false;
+				this.drained.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+			if (cause != null) this.onError.accept(new IOException(String.format(
+				 "Lost connection to %s, dropped %d bytes.",
+				 this.address, this.flushing.remaining()
+			), cause));
+			try {
+				if (this.channel != null) this.channel.close();
+				if (this.selector != null) this.selector.close();
+			} catch (final IOException ignored) {
+			}
+			this.channel = null;
+			this.selector = null;
+		}
+
+		/**
+		 * Waits for our reconnect-backoff, but wakes up early on {@link Sender#close()}.
+		 *
+		 * @param nanos The time we want to wait.
+		 */
+		private void sleep(final long nanos) {
+			this.lock.lock();
+			try {
+				if (this.open) this.filled.awaitNanos(nanos);
+			} catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * The inbound side of our bridge.<br>
+	 * A single selector-thread accepts connections, splits their streams into frames and calls the decoded events.
+	 */
+	public static final class Receiver implements AutoCloseable {
+		private final ServerSocketChannel server;
+		private final Selector selector;
+		private final TinyEvents target;
+		private final EventCodec.Registry codecs;
+		private final Consumer<Throwable> onError;
+		private final int frameSize;
+		private final Thread reader;
+		private volatile boolean open = true;
+
+		private Receiver(
+			 final SocketAddress address,
+			 final TinyEvents target,
+			 final EventCodec.Registry codecs,
+			 final Consumer<Throwable> onError,
+			 final int frameSize
+		) throws IOException {
+			this.server = address instanceof UnixDomainSocketAddress
+				 ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+				 : ServerSocketChannel.open();
+			try {
+				this.server.bind(address);
+				this.server.configureBlocking(false);
+				this.selector = Selector.open();
+				this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+			} catch (final IOException exception) {
+				this.server.close();
+				throw exception;
+			}
+			this.target = target;
+			this.codecs = codecs;
+			this.onError = onError;
+			this.frameSize = frameSize;
+			this.reader = new Thread(this::run, "TinyEvents-NetworkBridge-Receiver");
+			this.reader.setDaemon(true);
+			this.reader.start();
+		}
+
+		/**
+		 * @return The address we are bound to, useful when binding to port 0.
+		 *
+		 * @throws IOException if our server-channel is closed.
+		 */
+		public SocketAddress address() throws IOException {
+			return this.server.getLocalAddress();
+		}
+
+		/**
+		 * Closes all connections and our server-channel.<br>
+		 * Unix-domain socket-files get deleted as well.
+		 */
+		public @Override void close() throws IOException {
+			final SocketAddress address = this.server.getLocalAddress();
+			this.open = false;
+			this.selector.wakeup();
+			try {
+				this.reader.join();
+			} catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+			this.server.close();
+			if (address instanceof UnixDomainSocketAddress unix) Files.deleteIfExists(unix.getPath());
+		}
+
+		/**
+		 * The loop of our selector-thread.<br>
+		 * Closes all channels before our selector on shutdown, since its keys aren't reachable anymore afterwards.
+		 */
+		private void run() {
+			try {
+				while (this.open) {
+					this.selector.select();
+					for (final SelectionKey key : this.selector.selectedKeys()) {
+						if (!key.isValid()) continue;
+						if (key.isAcceptable()) this.accept();
+						else if (key.isReadable()) this.read(key);
+					}
+					this.selector.selectedKeys().clear();
+				}
+			} catch (final IOException exception) {
+				this.onError.accept(exception);
+			} finally {
+				for (final SelectionKey key : this.selector.keys()) {
+					try {
+						key.channel().close();
+					} catch (final IOException ignored) {
+					}
+				}
+				try {
+					this.selector.close();
+				} catch (final IOException ignored) {
+				}
+			}
+		}
+
+		/**
+		 * Accepts a pending connection and registers it for reading.
+		 *
+		 * @throws IOException if our selector broke.
+		 */
+		private void accept() throws IOException {
+			final SocketChannel channel = this.server.accept();
+			if (channel == null) return;
+			channel.configureBlocking(false);
+			channel.register(this.selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(Math.max(
+				 (this.frameSize + FRAME_HEADER_SIZE) << 1,
+				 DEFAULT_BATCH_SIZE
+			)));
+		}
+
+		/**
+		 * Reads from our connection and dispatches every complete frame.
+		 *
+		 * @param key The key of our connection.
+		 */
+		private void read(final SelectionKey key) {
+			final SocketChannel channel = (SocketChannel) key.channel();
+			final ByteBuffer buffer = (ByteBuffer) key.attachment();
+			try {
+				if (channel.read(buffer) < 0) {
+					key.cancel();
+					channel.close();
+					return;
+				}
+
+				buffer.flip();
+				while (buffer.remaining() >= FRAME_HEADER_SIZE) {
+					final int start = buffer.position(), length = buffer.getInt(start);
+					if (length < Integer.BYTES || length > this.frameSize + Integer.BYTES)
+						throw new IOException(String.format("Received a frame of %d bytes.", length));
+					if (buffer.remaining() < length + Integer.BYTES) break;
+
+					final int end = start + Integer.BYTES + length, limit = buffer.limit();
+					final EventCodec.Entry<? extends AbstractEvent> entry = this.codecs.get(buffer.getInt(start + Integer.BYTES));
+					if (entry == null) {
+						this.onError.accept(new IllegalStateException(String.format(
+							 "The type-id %d has no codec.",
+							 buffer.getInt(start + Integer.BYTES)
+						)));
+					} else {
+						try {
+							buffer.position(start + FRAME_HEADER_SIZE).limit(end);
+							this.target.call(entry.codec().decode(buffer));
+						} catch (final Throwable throwable) {
+							this.onError.accept(throwable);
+						} finally {
+							buffer.limit(limit);
+						}
+					}
+					buffer.position(end);
+				}
+				buffer.compact();
+			} catch (final IOException exception) {
+				key.cancel();
+				try {
+					channel.close();
+				} catch (final IOException ignored) {
+				}
+				this.onError.accept(exception);
+			}
+		}
+	}
+}
@@ -0,0 +1,352 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import zip.luzey.tinyevents.EventHandlers.IHandler;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Forwards events between processes on the same host through a memory-mapped ring-buffer.<br>
+ * Exactly one process may {@link SharedMemoryBridge#publish(AbstractEvent) publish} into a file,
+ * any number of processes may {@link SharedMemoryBridge#poll(TinyEvents, int) poll} from it.
+ * <p>
+ * Every slot starts with its sequence-number, which gets written last on publish and gets checked again after
+ * reading, so consumers never dispatch a torn event and notice when the producer lapped them.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class SharedMemoryBridge implements AutoCloseable {
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+	private static final int MAGIC = 0x54494E59;
+	private static final int MAGIC_OFFSET = 0, CAPACITY_OFFSET = 4, SLOT_SIZE_OFFSET = 8;
+	private static final int CURSOR_OFFSET = 64;
+	private static final int HEADER_SIZE = 128;
+	private static final int SLOT_HEADER_SIZE = 16, SLOT_ID_OFFSET = 8, SLOT_LENGTH_OFFSET = 12;
+
+	private static final int SPINS = 128;
+	private static final long IDLE_NANOS = 50_000L;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final ByteBuffer writer, scratch;
+	private final EventCodec.Registry codecs;
+	private final Consumer<Throwable> onError;
+	private final int capacity, mask, slotSize;
+
+	private long writeSequence, readSequence;
+	private volatile Thread listener;
+
+	private SharedMemoryBridge(
+		 final FileChannel channel,
+		 final MappedByteBuffer buffer,
+		 final EventCodec.Registry codecs,
+		 final Consumer<Throwable> onError
+	) {
+		this.channel = channel;
+		this.buffer = buffer;
+		this.codecs = codecs;
+		this.onError = onError;
+		this.capacity = buffer.getInt(CAPACITY_OFFSET);
+		this.mask = this.capacity - 1;
+		this.slotSize = buffer.getInt(SLOT_SIZE_OFFSET);
+		this.writer = buffer.duplicate();
+		this.scratch = ByteBuffer.allocate(this.slotSize - SLOT_HEADER_SIZE);
+		this.writeSequence = this.readSequence = (long) LONGS.getAcquire(buffer, CURSOR_OFFSET);
+	}
+
+	/**
+	 * Opens the given file as ring-buffer and creates it when it doesn't exist yet.
+	 *
+	 * @param file     The file both processes map.
+	 * @param capacity The amount of slots, has to be a power of two.
+	 * @param slotSize The size of a single slot in bytes, including a 16 byte header.
+	 * @param codecs   The codecs for all event-classes we want to transfer.
+	 * @param onError  The error-handler for codec-errors and overruns.
+	 *
+	 * @return A bridge that can publish and poll through our file.
+	 *
+	 * @throws IOException              if the file couldn't be mapped.
+	 * @throws IllegalArgumentException if the file was created with a different layout.
+	 */
+	@SuppressWarnings("try")
+	public static SharedMemoryBridge open(
+		 final Path file,
+		 final int capacity,
+		 final int slotSize,
+		 final EventCodec.Registry codecs,
+		 final Consumer<Throwable> onError
+	) throws IOException {
+		if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("The capacity has to be a power of two.");
+		if (slotSize <= SLOT_HEADER_SIZE || (slotSize & 7) != 0)
+			throw new IllegalArgumentException("The slot-size has to be a multiple of 8 and larger than " + SLOT_HEADER_SIZE + ".");
+
+		final long size = HEADER_SIZE + (long) capacity * slotSize;
+		if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("The ring-buffer can't be larger than 2GiB.");
+
+		final FileChannel channel = FileChannel.open(
+			 file,
+			 StandardOpenOption.CREATE,
+			 StandardOpenOption.READ,
+			 StandardOpenOption.WRITE
+		);
+		try (final FileLock ignored = channel.lock()) {
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.order(ByteOrder.nativeOrder());
+			if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+				buffer.putInt(CAPACITY_OFFSET, capacity);
+				buffer.putInt(SLOT_SIZE_OFFSET, slotSize);
+				LONGS.setRelease(buffer, CURSOR_OFFSET, 0L);
+				buffer.putInt(MAGIC_OFFSET, MAGIC);
+			} else if (buffer.getInt(CAPACITY_OFFSET) != capacity || buffer.getInt(SLOT_SIZE_OFFSET) != slotSize) {
+				throw new IllegalArgumentException(String.format(
+					 "The file %s was created with %d slots of %d bytes.",
+					 file, buffer.getInt(CAPACITY_OFFSET), buffer.getInt(SLOT_SIZE_OFFSET)
+				));
+			}
+			return new SharedMemoryBridge(channel, buffer, codecs, onError);
+		} catch (final Throwable throwable) {
+			channel.close();
+			throw throwable;
+		}
+	}
+
+	/**
+	 * Registers a handler on our source that publishes every event of the given class into our file.<br>
+	 * The handler has the lowest priority, so local handlers see the event first.
+	 *
+	 * @param source The event-manager we want to forward from.
+	 * @param clazz  The class-group we want to forward.
+	 * @param <E>    The type of our event.
+	 *
+	 * @return The registered handler, so it can be unregistered again.
+	 *
+	 * @throws IllegalArgumentException if the class has no codec.
+	 */
+	public <E extends AbstractEvent> IHandler<E> forward(
+		 final TinyEvents source,
+		 final Class<E> clazz
+	) {
+		if (this.codecs.get(clazz) == null) throw new IllegalArgumentException(String.format(
+			 "The class %s has no codec.",
+			 clazz.getName()
+		));
+		final IHandler<E> handler = new IHandler<>() {
+			public @Override void handle(final E event) {
+				SharedMemoryBridge.this.publish(event);
+			}
+
+			public @Override short priority() {
+				return Short.MIN_VALUE;
+			}
+		};
+		source.register(clazz, handler);
+		return handler;
+	}
+
+	/**
+	 * Writes our event into the next slot and makes it visible to all consumers.
+	 *
+	 * @param event The event we want to publish.
+	 * @param <E>   The type of our event.
+	 *
+	 * @return true if the event got published, false if it had no codec or didn't fit into a slot.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <E extends AbstractEvent> boolean publish(final E event) {
+		final EventCodec.Entry<E> entry = this.codecs.get((Class<E>) event.getClass());
+		if (entry == null) {
+			this.onError.accept(new IllegalArgumentException(String.format(
+				 "The class %s has no codec.",
+				 event.getClass().getName()
+			)));
+			return false;
+		}
+
+		final long sequence = this.writeSequence;
+		final int offset = this.offset(sequence);
+		LONGS.setOpaque(this.buffer, offset, -(sequence + 1));
+		VarHandle.storeStoreFence();
+
+		final int payload = offset + SLOT_HEADER_SIZE;
+		this.writer.limit(offset + this.slotSize).position(payload);
+		try {
+			entry.codec().encode(event, this.writer);
+		} catch (final BufferOverflowException exception) {
+			this.onError.accept(new IllegalArgumentException(String.format(
+				 "The event %s doesn't fit into %d bytes.",
+				 event, this.slotSize - SLOT_HEADER_SIZE
+			), exception));
+			return false;
+		}
+		this.buffer.putInt(offset + SLOT_ID_OFFSET, entry.id());
+		this.buffer.putInt(offset + SLOT_LENGTH_OFFSET, this.writer.position() - payload);
+
+		LONGS.setRelease(this.buffer, offset, sequence + 1);
+		LONGS.setRelease(this.buffer, CURSOR_OFFSET, sequence + 1);
+		this.writeSequence = sequence + 1;
+		return true;
+	}
+
+	/**
+	 * Reads published events and calls them on our target.
+	 *
+	 * @param target The event-manager we want to dispatch into.
+	 * @param limit  The maximum amount of events we want to dispatch.
+	 *
+	 * @return The amount of dispatched events.
+	 */
+	public synchronized int poll(
+		 final TinyEvents target,
+		 final int limit
+	) {
+		int count = 0;
+		while (count < limit) {
+			final long sequence = this.readSequence, expected = sequence + 1;
+			final int offset = this.offset(sequence);
+
+			final long marker = (long) LONGS.getAcquire(this.buffer, offset);
+			if (marker != expected) {
+				if (Math.abs(marker) <= expected) break;
+				this.overrun(sequence);
+				continue;
+			}
+
+			final int id = this.buffer.getInt(offset + SLOT_ID_OFFSET);
+			final int length = this.buffer.getInt(offset + SLOT_LENGTH_OFFSET);
+			if (length < 0 || length > this.scratch.capacity()) {
+				this.overrun(sequence);
+				continue;
+			}
+			this.buffer.get(offset + SLOT_HEADER_SIZE, this.scratch.array(), 0, length);
+
+			VarHandle.loadLoadFence();
+			if ((long) LONGS.getOpaque(this.buffer, offset) != expected) {
+				this.overrun(sequence);
+				continue;
+			}
+			this.readSequence = expected;
+
+			final EventCodec.Entry<? extends AbstractEvent> entry = this.codecs.get(id);
+			if (entry == null) {
+				this.onError.accept(new IllegalStateException(String.format(
+					 "The type-id %d has no codec.",
+					 id
+				)));
+				continue;
+			}
+
+			try {
+				this.scratch.clear().limit(length);
+				target.call(entry.codec().decode(this.scratch));
+			} catch (final Throwable throwable) {
+				this.onError.accept(throwable);
+			}
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Starts a daemon-thread that polls our file and dispatches into the target until {@link SharedMemoryBridge#close()}.
+	 *
+	 * @param target The event-manager we want to dispatch into.
+	 *
+	 * @return this bridge for chaining.
+	 *
+	 * @throws IllegalStateException if a listener is already running.
+	 */
+	public synchronized SharedMemoryBridge listen(final TinyEvents target) {
+		if (this.listener != null) throw new IllegalStateException("The bridge is already listening.");
+		final Thread thread = new Thread(() -> {
+			int idle = 0;
+			while (this.listener == Thread.currentThread()) {
+				if (this.poll(target, this.capacity) > 0) {
+					idle = 0;
+				} else if (idle++ < SPINS) {
+					Thread.onSpinWait();
+				} else LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}, "TinyEvents-SharedMemoryBridge");
+		thread.setDaemon(true);
+		this.listener = thread;
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * @return The sequence of the next event our producer will publish, readable by every process.
+	 */
+	public long cursor() {
+		return (long) LONGS.getAcquire(this.buffer, CURSOR_OFFSET);
+	}
+
+	/**
+	 * Stops the listener-thread and closes the underlying file.<br>
+	 * The mapping itself gets released once it is garbage-collected.
+	 */
+	public @Override void close() throws IOException {
+		final Thread thread = this.listener;
+		this.listener = null;
+		if (thread != null && thread != Thread.currentThread()) {
+			try {
+				thread.join();
+			} catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.channel.close();
+	}
+
+	/**
+	 * Skips every slot the producer already overwrote and reports the lost events.
+	 *
+	 * @param sequence The sequence we failed to read.
+	 */
+	private void overrun(final long sequence) {
+		final long resume = Math.max(sequence + 1, this.cursor() - this.capacity + 1);
+		this.readSequence = resume;
+		this.onError.accept(new IllegalStateException(String.format(
+			 "The consumer got overrun and lost %d events.",
+			 resume - sequence
+		)));
+	}
+
+	/**
+	 * @param sequence The sequence we want the slot for.
+	 *
+	 * @return The offset of the slot in our file.
+	 */
+	private int offset(final long sequence) {
+		return HEADER_SIZE + (int) (sequence & this.mask) * this.slotSize;
+	}
+}
@@ -0,0 +1,425 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical hashed timing-wheel that runs delayed and periodic tasks, used by
+ * {@link TinyEvents#callLater(AbstractEvent, long, TimeUnit) callLater}.<br>
+ * Every level has 64 slots, a slot of level {@code n} spans {@code 64^n} ticks and gets cascaded into the lower levels
+ * once the wheel reaches it. Scheduling and cancelling are O(1) and allocate nothing but the {@link Timeout timeout},
+ * both get handed to the single ticker-thread through lock-free stacks.
+ * <p>
+ * Tasks run on the ticker-thread unless an executor is given, so they should be short.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class TimingWheel implements AutoCloseable {
+	private static final int SLOT_BITS = 6, SLOTS = 1 << SLOT_BITS, SLOT_MASK = SLOTS - 1, LEVELS = 6;
+	private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+	private final long start = System.nanoTime(), tickNanos;
+	private final Executor executor;
+	private final Consumer<Throwable> onError;
+
+	private final Timeout[] slots = new Timeout[SLOTS * LEVELS];
+	private final AtomicReference<Timeout> pending = new AtomicReference<>(), cancelled = new AtomicReference<>();
+	private final Thread ticker;
+	private long tick, size;
+	private volatile boolean idle, closed;
+
+	/**
+	 * Creates a timing-wheel with a tick of one millisecond that runs its tasks on the ticker-thread.
+	 */
+	public TimingWheel() {
+		this(1, TimeUnit.MILLISECONDS, null, TinyEvents.DEFAULT_ON_ERROR);
+	}
+
+	/**
+	 * @param tick     The resolution of our wheel, tasks run at most one tick late.
+	 * @param unit     The unit of our tick.
+	 * @param executor The executor tasks get handed to or null to run them on the ticker-thread.
+	 * @param onError  The error-handler for tasks that throw or get rejected.
+	 */
+	public TimingWheel(
+		 final long tick,
+		 final TimeUnit unit,
+		 final Executor executor,
+		 final Consumer<Throwable> onError
+	) {
+		if (tick < 1) throw new IllegalArgumentException("The tick has to be positive.");
+		this.tickNanos = Math.max(1, unit.toNanos(tick));
+		this.executor = executor;
+		this.onError = onError;
+		this.ticker = new Thread(this::run, "TinyEvents-TimingWheel");
+		this.ticker.setDaemon(true);
+		this.ticker.start();
+	}
+
+	/**
+	 * @return A wheel with a tick of one millisecond shared by all event-managers without an own one.
+	 */
+	public static TimingWheel shared() {
+		return Shared.INSTANCE;
+	}
+
+	/**
+	 * Runs a task once after the given delay.
+	 *
+	 * @param task  The task we want to run.
+	 * @param delay The delay after which our task runs.
+	 * @param unit  The unit of our delay.
+	 *
+	 * @return A handle to cancel our task.
+	 */
+	public Timeout schedule(
+		 final Runnable task,
+		 final long delay,
+		 final TimeUnit unit
+	) {
+		return this.add(new Timeout(this, task, this.deadline(delay, unit), 0));
+	}
+
+	/**
+	 * Runs a task after the initial delay and then once per period until it gets cancelled.<br>
+	 * A late run doesn't move the following ones, missed runs get caught up one per tick.
+	 *
+	 * @param task         The task we want to run.
+	 * @param initialDelay The delay after which our task runs the first time.
+	 * @param period       The time between two runs.
+	 * @param unit         The unit of our delay and period.
+	 *
+	 * @return A handle to cancel our task.
+	 */
+	public Timeout scheduleAtFixedRate(
+		 final Runnable task,
+		 final long initialDelay,
+		 final long period,
+		 final TimeUnit unit
+	) {
+		if (period < 1) throw new IllegalArgumentException("The period has to be positive.");
+		final long ticks = Math.max(1, this.ticks(unit.toNanos(period)));
+		return this.add(new Timeout(this, task, this.deadline(initialDelay, unit), ticks));
+	}
+
+	/**
+	 * Stops our ticker-thread, pending tasks won't run anymore.
+	 */
+	public @Override void close() {
+		this.closed = true;
+		LockSupport.unpark(this.ticker);
+	}
+
+	/**
+	 * @param delay The delay of our task.
+	 * @param unit  The unit of our delay.
+	 *
+	 * @return The tick our task is due on.
+	 */
+	private long deadline(
+		 final long delay,
+		 final TimeUnit unit
+	) {
+		return this.ticks(saturatedAdd(System.nanoTime() - this.start, Math.max(0, unit.toNanos(delay))));
+	}
+
+	/**
+	 * @param nanos The nanoseconds we want to convert.
+	 *
+	 * @return The amount of ticks that cover our nanoseconds, rounded up without overflowing.
+	 */
+	private long ticks(final long nanos) {
+		final long ticks = nanos / this.tickNanos;
+		return nanos % this.tickNanos == 0 ? ticks : ticks + 1;
+	}
+
+	/**
+	 * Far-future deadlines stick to {@link Long#MAX_VALUE} instead of wrapping into the past,
+	 * {@link TimingWheel#place(Timeout)} keeps them on the top level.
+	 *
+	 * @param value  The value we want to add to.
+	 * @param amount The non-negative amount we want to add.
+	 *
+	 * @return The sum or {@link Long#MAX_VALUE} if it overflows.
+	 */
+	private static long saturatedAdd(
+		 final long value,
+		 final long amount
+	) {
+		return amount > Long.MAX_VALUE - value ? Long.MAX_VALUE : value + amount;
+	}
+
+	/**
+	 * @param timeout The timeout we want to hand to our ticker-thread.
+	 *
+	 * @return The given timeout.
+	 */
+	private Timeout add(final Timeout timeout) {
+		if (this.closed) throw new IllegalStateException("The timing-wheel is closed.");
+		Timeout head;
+		do {
+			head = this.pending.get();
+			timeout.nextPending = head;
+		} while (!this.pending.compareAndSet(head, timeout));
+		if (this.idle) LockSupport.unpark(this.ticker);
+		return timeout;
+	}
+
+	/**
+	 * The loop of our ticker-thread, it sleeps until the next tick and parks while the wheel is empty.
+	 */
+	private void run() {
+		while (!this.closed) {
+			this.drainCancelled();
+			this.drainPending();
+
+			if (this.size == 0) {
+				this.idle = true;
+				if (this.pending.get() == null && !this.closed) LockSupport.park(this);
+				this.idle = false;
+				this.tick = Math.max(this.tick, (System.nanoTime() - this.start) / this.tickNanos);
+				continue;
+			}
+
+			final long now = System.nanoTime() - this.start, target = now / this.tickNanos;
+			if (this.tick >= target) {
+				LockSupport.parkNanos(this, (this.tick + 1) * this.tickNanos - now);
+				continue;
+			}
+			while (this.tick < target && !this.closed) this.advance(++this.tick);
+		}
+	}
+
+	/**
+	 * Cascades the slots of all levels the given tick completes and expires the current slot of the lowest level.
+	 *
+	 * @param tick The tick we advanced to.
+	 */
+	private void advance(final long tick) {
+		int level = 1;
+		while (level < LEVELS && (tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) level++;
+		for (level-- ; level > 0 ; level--) {
+			Timeout timeout = this.detachSlot(level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+			while (timeout != null) {
+				final Timeout next = timeout.next;
+				this.place(timeout);
+				timeout = next;
+			}
+		}
+
+		Timeout timeout = this.detachSlot((int) (tick & SLOT_MASK));
+		while (timeout != null) {
+			final Timeout next = timeout.next;
+			timeout.next = null;
+			this.size--;
+			this.expire(timeout);
+			timeout = next;
+		}
+	}
+
+	/**
+	 * @param timeout The timeout whose deadline got reached.
+	 */
+	private void expire(final Timeout timeout) {
+		if (timeout.period == 0) {
+			if (!Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) return;
+		} else if (timeout.state != Timeout.PENDING) return;
+
+		if (this.executor == null) {
+			try {
+				timeout.task.run();
+			} catch (final Throwable throwable) {
+				this.onError.accept(throwable);
+			}
+		} else {
+			try {
+				this.executor.execute(timeout.task);
+			} catch (final RejectedExecutionException exception) {
+				this.onError.accept(exception);
+			}
+		}
+
+		if (timeout.period != 0 && timeout.state == Timeout.PENDING) {
+			timeout.deadline = saturatedAdd(timeout.deadline, timeout.period);
+			this.size++;
+			this.place(timeout);
+		}
+	}
+
+	/**
+	 * Moves all scheduled timeouts into our wheel, deadlines that already passed are due on the next tick.
+	 */
+	private void drainPending() {
+		Timeout timeout = this.pending.getAndSet(null);
+		while (timeout != null) {
+			final Timeout next = timeout.nextPending;
+			timeout.nextPending = null;
+			if (timeout.state == Timeout.PENDING) {
+				if (timeout.deadline <= this.tick) timeout.deadline = this.tick + 1;
+				this.size++;
+				this.place(timeout);
+			}
+			timeout = next;
+		}
+	}
+
+	/**
+	 * Unlinks all cancelled timeouts that are still in our wheel.
+	 */
+	private void drainCancelled() {
+		Timeout timeout = this.cancelled.getAndSet(null);
+		while (timeout != null) {
+			final Timeout next = timeout.nextCancelled;
+			timeout.nextCancelled = null;
+			if (timeout.slot >= 0) {
+				if (timeout.prev == null) this.slots[timeout.slot] = timeout.next;
+				else timeout.prev.next = timeout.next;
+				if (timeout.next != null) timeout.next.prev = timeout.prev;
+				timeout.prev = timeout.next = null;
+				timeout.slot = -1;
+				this.size--;
+			}
+			timeout = next;
+		}
+	}
+
+	/**
+	 * Links a timeout into the slot of the lowest level that can still hold its deadline.
+	 *
+	 * @param timeout The timeout we want to place.
+	 */
+	private void place(final Timeout timeout) {
+		final long delta = timeout.deadline - this.tick;
+		final long deadline = delta < SPAN ? timeout.deadline : this.tick + SPAN - 1;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) level++;
+
+		final int slot = level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+		final Timeout head = this.slots[slot];
+		timeout.prev = null;
+		timeout.next = head;
+		if (head != null) head.prev = timeout;
+		this.slots[slot] = timeout;
+		timeout.slot = slot;
+	}
+
+	/**
+	 * @param slot The slot we want to empty.
+	 *
+	 * @return The first timeout of our former slot, linked through {@link Timeout#next}.
+	 */
+	private Timeout detachSlot(final int slot) {
+		final Timeout head = this.slots[slot];
+		this.slots[slot] = null;
+		for (Timeout timeout = head ; timeout != null ; timeout = timeout.next) {
+			timeout.prev = null;
+			timeout.slot = -1;
+		}
+		return head;
+	}
+
+	/**
+	 * The handle of a scheduled task.
+	 */
+	public static final class Timeout {
+		private static final int PENDING = 0, EXPIRED = 1, CANCELLED = 2;
+		private static final VarHandle STATE;
+
+		static {
+			try {
+				STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+			} catch (final ReflectiveOperationException exception) {
+				throw new ExceptionInInitializerError(exception);
+			}
+		}
+
+		private final TimingWheel wheel;
+		private final Runnable task;
+		private final long period;
+		private long deadline;
+		private volatile int state;
+
+		// only touched by the ticker-thread, besides the stack-links which get published by the stacks.
+		private Timeout prev, next, nextPending, nextCancelled;
+		private int slot = -1;
+
+		private Timeout(
+			 final TimingWheel wheel,
+			 final Runnable task,
+			 final long deadline,
+			 final long period
+		) {
+			this.wheel = wheel;
+			this.task = task;
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		/**
+		 * Prevents all further runs of our task, a run that already started isn't interrupted.
+		 *
+		 * @return true if our task was still pending.
+		 */
+		public boolean cancel() {
+			if (!STATE.compareAndSet(this, PENDING, CANCELLED)) return false;
+			Timeout head;
+			do {
+				head = this.wheel.cancelled.get();
+				this.nextCancelled = head;
+			} while (!this.wheel.cancelled.compareAndSet(head, this));
+			return true;
+		}
+
+		/**
+		 * @return true if our task got cancelled.
+		 */
+		public boolean isCancelled() {
+			return this.state == CANCELLED;
+		}
+
+		/**
+		 * @return true if our one-shot task got run, periodic tasks never expire.
+		 */
+		public boolean isExpired() {
+			return this.state == EXPIRED;
+		}
+
+		/**
+		 * @return true if our task runs periodically.
+		 */
+		public boolean isPeriodic() {
+			return this.period != 0;
+		}
+	}
+
+	/**
+	 * Holds our shared wheel, so its thread only starts once it gets used.
+	 */
+	private static final class Shared {
+		private static final TimingWheel INSTANCE = new TimingWheel();
+	}
+}
@@ -19,6 +19,13 @@ package zip.luzey.tinyevents;
 import zip.luzey.tinyevents.EventHandlers.IHandler;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -34,11 +41,35 @@ public final class TinyEvents {
 	 * The default on-error when none gets passed.
 	 */
 	public static final Consumer<Throwable> DEFAULT_ON_ERROR = Throwable::printStackTrace;
+
+	/**
+	 * Sorts handlers from the highest to the lowest priority, handlers of equal priority keep their registration-order.
+	 */
+	private static final Comparator<IHandler<? extends AbstractEvent>> PRIORITY_ORDER =
+		 (handler1, handler2) -> Short.compare(handler2.priority(), handler1.priority());
+
 	private final Consumer<Throwable> onError;
 
 	private final Map<Class<? extends AbstractEvent>, IHandler<? extends AbstractEvent>[]> handlers;
-	private final Object2IntMap<IHandler<? extends AbstractEvent>> handlersIndices = new Object2IntMap<>();
+	private final Object2IntMap<IHandler<? extends AbstractEvent>> handlersIndices;
 
+	private final TinyEvents parent;
+	private final Map<Class<? extends AbstractEvent>, Merged> merged;
+
+	private FailurePolicy failurePolicy;
+	private Executor parallelism;
+	private boolean virtualThreads;
+	private TimingWheel timer;
+	private EventTracer tracer;
+	private volatile Map<Class<? extends AbstractEvent>, Admission> admissions;
+	private final Map<IHandler<? extends AbstractEvent>, Failures> failures = new IdentityHashMap<>(2);
+	private final LongAdder failureCount = new LongAdder();
+	private volatile int suspects;
+	private volatile long nextProbe = Long.MAX_VALUE;
+
+	private Map<IHandler<? extends AbstractEvent>, HandlerGroup> grouped;
+	private List<HandlerGroup> toggled;
+	private volatile boolean dirty;
 
 	/**
 	 * Creates a new event-manager with a default {@link IdentityHashMap map} and {@link TinyEvents#DEFAULT_ON_ERROR error-handler}.
@@ -69,9 +100,82 @@ public final class TinyEvents {
 	public TinyEvents(
 		 final Supplier<Map<Class<? extends AbstractEvent>, IHandler<? extends AbstractEvent>[]>> factory,
 		 final Consumer<Throwable> onError
+	) {
+		this(factory, onError, false);
+	}
+
+	/**
+	 * Creates a new event-manager with a custom {@link Supplier<Map> map} and {@link Consumer<Throwable> error-handler}.<br>
+	 * In compact-mode we don't keep a handlers-indices-map, so a handler costs a single slot in the array of its class
+	 * and {@link TinyEvents#unregister(Class, IHandler)} searches that array instead.
+	 *
+	 * @param factory The custom map we want to provide.
+	 * @param onError The custom error-handler we want to provide.
+	 * @param compact Whether we want to run in compact-mode.
+	 *
+	 * @see TinyEvents#footprint()
+	 */
+	public TinyEvents(
+		 final Supplier<Map<Class<? extends AbstractEvent>, IHandler<? extends AbstractEvent>[]>> factory,
+		 final Consumer<Throwable> onError,
+		 final boolean compact
 	) {
 		this.handlers = factory.get();
+		this.handlersIndices = compact ? null : new Object2IntMap<>();
 		this.onError = onError;
+		this.parent = null;
+		this.merged = null;
+	}
+
+	/**
+	 * Creates a child-event-manager, see {@link TinyEvents#child()}.
+	 *
+	 * @param parent The event-manager whose handlers we inherit.
+	 */
+	private TinyEvents(final TinyEvents parent) {
+		this.handlers = new IdentityHashMap<>(2);
+		this.handlersIndices = parent.handlersIndices == null ? null : new Object2IntMap<>(2);
+		this.onError = parent.onError;
+		this.parent = parent;
+		this.merged = new ConcurrentHashMap<>(2);
+		this.failurePolicy = parent.failurePolicy;
+		this.parallelism = parent.parallelism;
+		this.virtualThreads = parent.virtualThreads;
+		this.timer = parent.timer;
+		this.tracer = parent.tracer;
+		this.admissions = parent.admissions;
+	}
+
+	/**
+	 * Creates a child-event-manager that calls the handlers of this one plus its own.<br>
+	 * The child shares the handler-arrays of its parent and only merges them with its own handlers when both have
+	 * handlers for a class, the merged array is cached until either side changes. Handlers registered on the parent
+	 * later on are visible to all children, handlers registered on a child are never visible to the parent.
+	 * <p>
+	 * The child copies the error-handler, {@link FailurePolicy failure-policy}, parallelism, virtual-threads, timer, tracer and admissions of this one.
+	 *
+	 * @return A new child of this event-manager.
+	 */
+	public TinyEvents child() {
+		return new TinyEvents(this);
+	}
+
+	/**
+	 * @return The event-manager we inherit handlers from or null.
+	 */
+	public TinyEvents getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Creates a group of handlers that can be muted and unmuted as a whole without re-registering them.
+	 *
+	 * @return A new and enabled handler-group of this event-manager.
+	 *
+	 * @see HandlerGroup#setEnabled(boolean)
+	 */
+	public HandlerGroup group() {
+		return new HandlerGroup(this);
 	}
 
 	/**
@@ -80,22 +184,11 @@ public final class TinyEvents {
 	 * @param <H>     The type of the handler.
 	 * @param <E>     The type of the event for our handler.
 	 */
-	public <H extends EventHandlers.IHandler<E>, E extends AbstractEvent> void register(
+	public synchronized <H extends EventHandlers.IHandler<E>, E extends AbstractEvent> void register(
 		 final Class<E> clazz,
 		 final H handler
 	) {
-		try {
-			final IHandler<? extends AbstractEvent>[] current = this.handlers.getOrDefault(clazz, new IHandler<?>[0]);
-			final IHandler<? extends AbstractEvent>[] updated = Arrays.copyOf(current, current.length + 1);
-			updated[updated.length - 1] = handler;
-
-			final Comparator<IHandler<? extends AbstractEvent>> sort = Comparator.comparingInt(wrapper1 -> handler.priority());
-			Arrays.sort(updated, sort);
-			this.handlers.put(clazz, updated);
-			this.handlersIndices.put(handler, Arrays.binarySearch(updated, handler, sort));
-		} catch (final Throwable throwable) {
-			onError.accept(throwable);
-		}
+		this.insert(clazz, handler);
 	}
 
 	/**
@@ -104,10 +197,27 @@ public final class TinyEvents {
 	 * @param <H>     The type of the handler.
 	 * @param <E>     The type of the event for our handler.
 	 */
-	public <H extends EventHandlers.IHandler<E>, E extends AbstractEvent> void unregister(
+	public synchronized <H extends EventHandlers.IHandler<E>, E extends AbstractEvent> void unregister(
 		 final Class<E> clazz,
 		 final H handler
 	) {
+		final HandlerGroup group = this.grouped == null ? null : this.grouped.remove(handler);
+		if (group != null) group.remove(handler);
+
+		final Failures failures = this.failures.remove(handler);
+		if (failures != null) {
+			if (failures.disabled) {
+				if (this.handlersIndices != null) this.handlersIndices.remove(handler);
+				return;
+			}
+			if (failures.consecutive > 0 || failures.probing) this.suspects--;
+		}
+
+		if (group != null && !group.applied) {
+			if (this.handlersIndices != null) this.handlersIndices.remove(handler);
+			return;
+		}
+
 		final IHandler<? extends AbstractEvent>[] current = this.handlers.getOrDefault(clazz, new IHandler<?>[0]);
 
 		if (current.length == 0) {
@@ -115,8 +225,9 @@ public final class TinyEvents {
 			return;
 		}
 
-		int index = this.handlersIndices.get(handler);
-		if (index < 0 || index > current.length - 1) {
+		int index = this.handlersIndices == null ? -1 : this.handlersIndices.get(handler);
+		if (index < 0 || index > current.length - 1 || current[index] != handler) index = indexOf(current, handler);
+		if (index < 0) {
 			this.onError.accept(new NoSuchFieldError(String.format(
 				 "The handler %s doesn't exist.",
 				 handler.toString()
@@ -130,7 +241,7 @@ public final class TinyEvents {
 			System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
 			this.handlers.put(clazz, updated);
 		} else this.handlers.remove(clazz);
-		this.handlersIndices.remove(handler);
+		if (this.handlersIndices != null) this.handlersIndices.remove(handler);
 	}
 
 	/**
@@ -139,15 +250,750 @@ public final class TinyEvents {
 	 */
 	@SuppressWarnings("unchecked")
 	public <E extends AbstractEvent> void call(final E event) {
-		final IHandler<E>[] handlers = (IHandler<E>[]) this.handlers.get(event.getClass());
-		if (handlers == null) return;
-		for (final IHandler<E> handler : handlers) {
-			try {
-				handler.accept(event);
-			} catch (final Throwable throwable) {
-				onError.accept(throwable);
+		final IHandler<E>[] handlers = (IHandler<E>[]) this.lookup(event.getClass());
+		if (handlers == null || handlers.length == 0 || !this.admit(event.getClass())) return;
+		this.dispatch(handlers, event);
+	}
+
+	/**
+	 * Calls an event that only gets created if at least one handler listens to its class-group
+	 * and its {@link Admission admission} lets it through.<br>
+	 * Meant for events that are expensive to build and rarely listened to, e.g. debug- or audit-events.
+	 *
+	 * @param clazz The class-group of our event.
+	 * @param event The supplier that creates our event.
+	 * @param <E>   The type of our event.
+	 *
+	 * @see TinyEvents#hasListeners(Class)
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends AbstractEvent> void call(
+		 final Class<E> clazz,
+		 final Supplier<? extends E> event
+	) {
+		final IHandler<E>[] handlers = (IHandler<E>[]) this.lookup(clazz);
+		if (handlers == null || handlers.length == 0 || !this.admit(clazz)) return;
+		this.dispatch(handlers, event.get());
+	}
+
+	/**
+	 * Handlers that got disabled by our {@link FailurePolicy failure-policy} or are in a disabled
+	 * {@link HandlerGroup group} don't count as listeners.
+	 *
+	 * @param clazz The class-group we want to check.
+	 *
+	 * @return true if at least one handler of ours or our parents listens to the class-group.
+	 */
+	public boolean hasListeners(final Class<? extends AbstractEvent> clazz) {
+		final IHandler<? extends AbstractEvent>[] handlers = this.lookup(clazz);
+		return handlers != null && handlers.length != 0;
+	}
+
+	/**
+	 * @param clazz The class-group we want to check.
+	 *
+	 * @return The highest priority of the handlers of our class-group or {@link Short#MIN_VALUE} if there are none.
+	 */
+	short highestPriority(final Class<? extends AbstractEvent> clazz) {
+		final IHandler<? extends AbstractEvent>[] handlers = this.resolve(clazz);
+		return handlers == null || handlers.length == 0 ? Short.MIN_VALUE : handlers[0].priority();
+	}
+
+	/**
+	 * Puts an admission in front of all calls of a class-group, e.g. a {@link Admission#rateLimit(long, long, TimeUnit, int) rate-limit}
+	 * or {@link Admission#oneIn(int) sampler}. Dropped events don't reach any handler,
+	 * calls without any handler don't reach the admission.
+	 *
+	 * @param clazz     The class-group we want to limit.
+	 * @param admission The admission we want to check or null to admit all events again.
+	 * @param <E>       The type of our event.
+	 */
+	public synchronized <E extends AbstractEvent> void setAdmission(
+		 final Class<E> clazz,
+		 final Admission admission
+	) {
+		final Map<Class<? extends AbstractEvent>, Admission> updated =
+			 this.admissions == null ? new IdentityHashMap<>(2) : new IdentityHashMap<>(this.admissions);
+		if (admission == null) updated.remove(clazz);
+		else updated.put(clazz, admission);
+		this.admissions = updated.isEmpty() ? null : updated;
+	}
+
+	/**
+	 * @param clazz The class-group we want the admission of.
+	 *
+	 * @return The admission of our class-group or null if all its events get called.
+	 */
+	public Admission getAdmission(final Class<? extends AbstractEvent> clazz) {
+		final Map<Class<? extends AbstractEvent>, Admission> admissions = this.admissions;
+		return admissions == null ? null : admissions.get(clazz);
+	}
+
+	/**
+	 * Calls an event once after the given delay through our {@link TinyEvents#getTimer() timer}.<br>
+	 * The event goes through {@link TinyEvents#call(AbstractEvent)}, so handlers run in their usual priority-order.
+	 *
+	 * @param event The event we want to call.
+	 * @param delay The delay after which our event gets called.
+	 * @param unit  The unit of our delay.
+	 * @param <E>   The type of our event.
+	 *
+	 * @return A handle to cancel our call.
+	 */
+	public <E extends AbstractEvent> TimingWheel.Timeout callLater(
+		 final E event,
+		 final long delay,
+		 final TimeUnit unit
+	) {
+		Objects.requireNonNull(event);
+		return this.getTimer().schedule(this.propagate(() -> this.call(event)), delay, unit);
+	}
+
+	/**
+	 * Calls an event after the initial delay and then once per period through our {@link TinyEvents#getTimer() timer}.<br>
+	 * Every run calls a new event from the supplier, {@code () -> event} calls the same event every time.
+	 *
+	 * @param event        The supplier of the event we want to call.
+	 * @param initialDelay The delay after which our event gets called the first time.
+	 * @param period       The time between two calls.
+	 * @param unit         The unit of our delay and period.
+	 * @param <E>          The type of our event.
+	 *
+	 * @return A handle to cancel our calls.
+	 */
+	public <E extends AbstractEvent> TimingWheel.Timeout callAtFixedRate(
+		 final Supplier<E> event,
+		 final long initialDelay,
+		 final long period,
+		 final TimeUnit unit
+	) {
+		Objects.requireNonNull(event);
+		return this.getTimer().scheduleAtFixedRate(this.propagate(() -> this.call(event.get())), initialDelay, period, unit);
+	}
+
+	/**
+	 * Sets the tracer that records which dispatch caused which, null disables tracing (default).<br>
+	 * Should be set before the event-manager gets shared between threads.
+	 *
+	 * @param tracer The tracer we want to record to.
+	 */
+	public void setTracer(final EventTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	/**
+	 * @return The current tracer or null if tracing is disabled.
+	 */
+	public EventTracer getTracer() {
+		return this.tracer;
+	}
+
+	/**
+	 * Sets the timing-wheel delayed calls get scheduled on, null uses the {@link TimingWheel#shared() shared} one (default).<br>
+	 * Should be set before the event-manager gets shared between threads.
+	 *
+	 * @param timer The timing-wheel we want to use.
+	 */
+	public void setTimer(final TimingWheel timer) {
+		this.timer = timer;
+	}
+
+	/**
+	 * @return The timing-wheel delayed calls get scheduled on.
+	 */
+	public TimingWheel getTimer() {
+		final TimingWheel timer = this.timer;
+		return timer == null ? TimingWheel.shared() : timer;
+	}
+
+	/**
+	 * Lets handlers of equal priority run in parallel on the given executor, e.g. {@link ForkJoinPool#commonPool()}.<br>
+	 * Every priority-tier gets joined before the next lower one starts, null calls all handlers sequentially (default).<br>
+	 * Should be set before the event-manager gets shared between threads.
+	 *
+	 * @param parallelism The executor we want to fan out to.
+	 */
+	public void setParallelism(final Executor parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return The executor for parallel priority-tiers or null if they get called sequentially.
+	 */
+	public Executor getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Lets {@link IHandler#blocking() blocking} handlers run on a virtual thread per call, handlers of equal priority
+	 * run alongside each other and every priority-tier gets joined before the next lower one starts.<br>
+	 * Only has an effect on Java 21 and above, see {@link TinyEvents#supportsVirtualThreads()}, and while no
+	 * {@link TinyEvents#setParallelism(Executor) parallelism} is set.<br>
+	 * Should be set before the event-manager gets shared between threads.
+	 *
+	 * @param virtualThreads Whether blocking handlers should run on virtual threads.
+	 */
+	public void setVirtualThreads(final boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * @return true if blocking handlers should run on virtual threads.
+	 */
+	public boolean isVirtualThreads() {
+		return this.virtualThreads;
+	}
+
+	/**
+	 * @return true if the running java-version supports {@link TinyEvents#setVirtualThreads(boolean) virtual threads}.
+	 */
+	public static boolean supportsVirtualThreads() {
+		return VirtualThreads.supported();
+	}
+
+	/**
+	 * Sets how failing handlers get treated, null reports every failure to the error-handler (default).<br>
+	 * Should be set before the event-manager gets shared between threads.
+	 *
+	 * @param failurePolicy The policy we want to use.
+	 */
+	public void setFailurePolicy(final FailurePolicy failurePolicy) {
+		this.failurePolicy = failurePolicy;
+	}
+
+	/**
+	 * @return The current failure-policy or null if none is set.
+	 */
+	public FailurePolicy getFailurePolicy() {
+		return this.failurePolicy;
+	}
+
+	/**
+	 * @return The amount of exceptions thrown by all handlers since creation.
+	 */
+	public long getFailures() {
+		return this.failureCount.sum();
+	}
+
+	/**
+	 * @param handler The handler we want the failures from.
+	 *
+	 * @return The amount of exceptions thrown by the handler while a {@link FailurePolicy failure-policy} was set.
+	 */
+	public synchronized long getFailures(final IHandler<? extends AbstractEvent> handler) {
+		final Failures failures = this.failures.get(handler);
+		return failures == null ? 0 : failures.total;
+	}
+
+	/**
+	 * @param handler The handler we want to check.
+	 *
+	 * @return true if the handler got disabled by our {@link FailurePolicy failure-policy} and waits for its probe.
+	 */
+	public synchronized boolean isDisabled(final IHandler<? extends AbstractEvent> handler) {
+		final Failures failures = this.failures.get(handler);
+		return failures != null && failures.disabled;
+	}
+
+	/**
+	 * Estimates the memory used to store our handlers, assuming compressed oops and class-pointers,
+	 * which is the default for heaps below 32GiB.<br>
+	 * The handlers themselves, the event-classes and the handlers inherited from our parent are not included.
+	 *
+	 * @return The current footprint of this event-manager.
+	 */
+	public synchronized Footprint footprint() {
+		int classes = 0;
+		long handlers = 0, bytes = 0;
+		for (final IHandler<? extends AbstractEvent>[] array : this.handlers.values()) {
+			classes++;
+			handlers += array.length;
+			bytes += Footprint.array(array.length);
+		}
+
+		if (this.handlers instanceof IdentityHashMap) {
+			int table = this.parent == null ? 64 : 8;
+			while (classes * 3 > table) table <<= 1;
+			bytes += Footprint.object(6) + Footprint.array(table);
+		} else {
+			int table = 16;
+			while (classes > table * 0.75f) table <<= 1;
+			bytes += Footprint.object(8) + Footprint.array(table) + (long) classes * Footprint.object(4);
+		}
+
+		if (this.handlersIndices != null) bytes += this.handlersIndices.footprint();
+		if (this.merged != null) {
+			for (final Merged merged : this.merged.values()) {
+				bytes += Footprint.object(4) + Footprint.object(3) + Footprint.array(merged.handlers.length);
 			}
 		}
+		return new Footprint(classes, handlers, bytes);
+	}
+
+	/**
+	 * @param clazz The class-group of the event we want to call.
+	 *
+	 * @return true if our {@link Admission admission} of the class-group lets the event through.
+	 */
+	private boolean admit(final Class<? extends AbstractEvent> clazz) {
+		final Map<Class<? extends AbstractEvent>, Admission> admissions = this.admissions;
+		if (admissions == null) return true;
+		final Admission admission = admissions.get(clazz);
+		return admission == null || admission.admit();
+	}
+
+	/**
+	 * Applies toggled {@link HandlerGroup groups} and probes due handlers of us and our parents before resolving.
+	 *
+	 * @param clazz The class-group we want the handlers of.
+	 *
+	 * @return Our own handlers merged with the ones of our parents, or null if there are none.
+	 */
+	private IHandler<? extends AbstractEvent>[] lookup(final Class<? extends AbstractEvent> clazz) {
+		for (TinyEvents events = this ; events != null ; events = events.parent) {
+			if (events.dirty) events.applyGroups();
+			if (events.nextProbe != Long.MAX_VALUE) events.probe();
+		}
+		return this.resolve(clazz);
+	}
+
+	/**
+	 * @param handlers The resolved handlers of our event.
+	 * @param event    The event we want to call.
+	 * @param <E>      The type of our event.
+	 */
+	private <E extends AbstractEvent> void dispatch(
+		 final IHandler<E>[] handlers,
+		 final E event
+	) {
+		final EventTracer tracer = this.tracer;
+		if (tracer == null) {
+			this.dispatchUntraced(handlers, event);
+			return;
+		}
+		final EventTracer.Span parent = tracer.enter(event.getClass());
+		try {
+			this.dispatchUntraced(handlers, event);
+		} finally {
+			tracer.exit(parent, handlers.length);
+		}
+	}
+
+	/**
+	 * @param handlers The resolved handlers of our event.
+	 * @param event    The event we want to call.
+	 * @param <E>      The type of our event.
+	 */
+	private <E extends AbstractEvent> void dispatchUntraced(
+		 final IHandler<E>[] handlers,
+		 final E event
+	) {
+		final boolean suspects = this.hasSuspects();
+		final Executor parallelism = this.parallelism;
+		if (parallelism != null) {
+			this.callParallel(handlers, event, suspects, parallelism);
+			return;
+		}
+		if (this.virtualThreads && VirtualThreads.supported()) {
+			this.callVirtual(handlers, event, suspects);
+			return;
+		}
+		for (final IHandler<E> handler : handlers) this.invoke(handler, event, suspects);
+	}
+
+	/**
+	 * @param task The task we want to run on another thread or later on.
+	 *
+	 * @return A task that keeps the current dispatch as parent for our {@link EventTracer tracer}.
+	 */
+	private Runnable propagate(final Runnable task) {
+		final EventTracer tracer = this.tracer;
+		return tracer == null ? task : tracer.wrap(task);
+	}
+
+	/**
+	 * @param clazz The class-group we want the handlers of.
+	 *
+	 * @return Our own handlers merged with the ones of our parents, or null if there are none.
+	 */
+	private IHandler<? extends AbstractEvent>[] resolve(final Class<? extends AbstractEvent> clazz) {
+		final IHandler<? extends AbstractEvent>[] local = this.handlers.get(clazz);
+		if (this.parent == null) return local;
+
+		final IHandler<? extends AbstractEvent>[] inherited = this.parent.resolve(clazz);
+		if (inherited == null || inherited.length == 0) return local;
+		if (local == null || local.length == 0) return inherited;
+
+		Merged merged = this.merged.get(clazz);
+		if (merged == null || merged.local != local || merged.inherited != inherited) {
+			this.merged.put(clazz, merged = new Merged(inherited, local));
+		}
+		return merged.handlers;
+	}
+
+	/**
+	 * @return true if any handler of us or our parents is in a failure-streak.
+	 */
+	private boolean hasSuspects() {
+		for (TinyEvents events = this ; events != null ; events = events.parent) {
+			if (events.suspects != 0) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Calls our handlers tier by tier, the calling thread takes part in every tier with more than one handler.
+	 *
+	 * @param handlers    The handlers sorted by priority.
+	 * @param event       The event we want to call.
+	 * @param suspects    Whether any handler is in a failure-streak.
+	 * @param parallelism The executor we fan out to.
+	 * @param <E>         The type of our event.
+	 */
+	private <E extends AbstractEvent> void callParallel(
+		 final IHandler<E>[] handlers,
+		 final E event,
+		 final boolean suspects,
+		 final Executor parallelism
+	) {
+		int from = 0;
+		while (from < handlers.length) {
+			final short priority = handlers[from].priority();
+			int to = from + 1;
+			while (to < handlers.length && handlers[to].priority() == priority) to++;
+
+			if (to - from > 1) {
+				final CompletableFuture<?>[] tasks = new CompletableFuture<?>[to - from - 1];
+				for (int index = from + 1 ; index < to ; index++) {
+					final IHandler<E> handler = handlers[index];
+					try {
+						tasks[index - from - 1] = CompletableFuture.runAsync(this.propagate(() -> this.invoke(handler, event, suspects)), parallelism);
+					} catch (final RejectedExecutionException exception) {
+						this.invoke(handler, event, suspects);
+						tasks[index - from - 1] = CompletableFuture.completedFuture(null);
+					}
+				}
+				this.invoke(handlers[from], event, suspects);
+				CompletableFuture.allOf(tasks).join();
+			} else this.invoke(handlers[from], event, suspects);
+			from = to;
+		}
+	}
+
+	/**
+	 * Calls the blocking handlers of every priority-tier on virtual threads and the others on the calling thread.
+	 *
+	 * @param handlers The resolved handlers of our event.
+	 * @param event    The event we want to call.
+	 * @param suspects Whether any handler is in a failure-streak.
+	 * @param <E>      The type of our event.
+	 */
+	private <E extends AbstractEvent> void callVirtual(
+		 final IHandler<E>[] handlers,
+		 final E event,
+		 final boolean suspects
+	) {
+		Runnable[] blocking = null;
+		int from = 0;
+		while (from < handlers.length) {
+			final short priority = handlers[from].priority();
+			int to = from, count = 0;
+			for (; to < handlers.length && handlers[to].priority() == priority ; to++) {
+				final IHandler<E> handler = handlers[to];
+				if (!handler.blocking()) continue;
+				if (blocking == null) blocking = new Runnable[handlers.length - from];
+				blocking[count++] = this.propagate(() -> this.invoke(handler, event, suspects));
+			}
+
+			if (count == 0) {
+				for (int index = from ; index < to ; index++) this.invoke(handlers[index], event, suspects);
+			} else {
+				final int first = from, last = to;
+				VirtualThreads.invokeAll(blocking, count, () -> {
+					for (int index = first ; index < last ; index++) {
+						if (!handlers[index].blocking()) this.invoke(handlers[index], event, suspects);
+					}
+				});
+			}
+			from = to;
+		}
+	}
+
+	/**
+	 * Calls a single handler and routes its failures.
+	 *
+	 * @param handler  The handler we want to call.
+	 * @param event    The event we want to call.
+	 * @param suspects Whether any handler is in a failure-streak.
+	 * @param <E>      The type of our event.
+	 */
+	private <E extends AbstractEvent> void invoke(
+		 final IHandler<E> handler,
+		 final E event,
+		 final boolean suspects
+	) {
+		try {
+			handler.accept(event);
+			if (suspects) this.succeeded(handler);
+		} catch (final Throwable throwable) {
+			this.failed(event.getClass(), handler, throwable);
+		}
+	}
+
+	/**
+	 * Inserts a handler into the handlers of its class.
+	 *
+	 * @param clazz   The class-group of our handler.
+	 * @param handler The handler we want to insert.
+	 */
+	private void insert(
+		 final Class<? extends AbstractEvent> clazz,
+		 final IHandler<? extends AbstractEvent> handler
+	) {
+		try {
+			final IHandler<? extends AbstractEvent>[] current = this.handlers.getOrDefault(clazz, new IHandler<?>[0]);
+			final IHandler<? extends AbstractEvent>[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[updated.length - 1] = handler;
+
+			Arrays.sort(updated, PRIORITY_ORDER);
+			this.handlers.put(clazz, updated);
+			if (this.handlersIndices != null) this.handlersIndices.put(handler, indexOf(updated, handler));
+		} catch (final Throwable throwable) {
+			onError.accept(throwable);
+		}
+	}
+
+	/**
+	 * Removes a handler from the handlers of its class, but keeps an empty array in place,
+	 * so concurrent calls never see a structural change of our map.
+	 *
+	 * @param clazz   The class-group of our handler.
+	 * @param handler The handler we want to remove.
+	 */
+	private void detach(
+		 final Class<? extends AbstractEvent> clazz,
+		 final IHandler<? extends AbstractEvent> handler
+	) {
+		final IHandler<? extends AbstractEvent>[] current = this.handlers.get(clazz);
+		final int index = current == null ? -1 : indexOf(current, handler);
+		if (index < 0) return;
+
+		final IHandler<? extends AbstractEvent>[] updated = new IHandler<?>[current.length - 1];
+		System.arraycopy(current, 0, updated, 0, index);
+		System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+		this.handlers.put(clazz, updated);
+	}
+
+	/**
+	 * Resets the failure-streak and probe-delay of a handler that failed or got probed before.
+	 *
+	 * @param handler The handler that got called successfully.
+	 */
+	private void succeeded(final IHandler<? extends AbstractEvent> handler) {
+		for (TinyEvents events = this ; events != null ; events = events.parent) {
+			if (events.suspects == 0) continue;
+			synchronized (events) {
+				final Failures failures = events.failures.get(handler);
+				if (failures == null) continue;
+				if (failures.consecutive == 0 && !failures.probing || failures.disabled) return;
+				failures.consecutive = 0;
+				failures.probing = false;
+				failures.delay = failures.baseDelay;
+				events.suspects--;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Counts and reports a failure and disables the handler when our {@link FailurePolicy failure-policy} says so.
+	 *
+	 * @param clazz     The class-group of our handler.
+	 * @param handler   The handler that threw.
+	 * @param throwable The thrown error.
+	 */
+	private void failed(
+		 final Class<? extends AbstractEvent> clazz,
+		 final IHandler<? extends AbstractEvent> handler,
+		 final Throwable throwable
+	) {
+		if (this.parent != null && indexOf(this.handlers.getOrDefault(clazz, new IHandler<?>[0]), handler) < 0) {
+			this.parent.failed(clazz, handler, throwable);
+			return;
+		}
+
+		this.failureCount.increment();
+		final FailurePolicy policy = this.failurePolicy;
+		if (policy == null) {
+			this.onError.accept(throwable);
+			return;
+		}
+
+		final HandlerFailure report;
+		synchronized (this) {
+			Failures failures = this.failures.get(handler);
+			if (failures == null) this.failures.put(handler, failures = new Failures(clazz, policy.probeDelay()));
+			if (failures.consecutive++ == 0 && !failures.disabled && !failures.probing) this.suspects++;
+			failures.total++;
+
+			final long now = System.nanoTime();
+			final boolean disable = !failures.disabled && failures.consecutive >= policy.threshold();
+			if (disable) {
+				failures.disabled = true;
+				failures.probing = false;
+				failures.probe = now + failures.delay;
+				failures.delay = Math.min(failures.delay << 1, policy.maxProbeDelay());
+				this.suspects--;
+				this.nextProbe = Math.min(this.nextProbe, failures.probe);
+				this.detach(clazz, handler);
+			}
+
+			if (disable || failures.reported == Failures.NEVER || now - failures.reported >= policy.reportInterval()) {
+				report = new HandlerFailure(handler, clazz, failures.total, failures.suppressed, disable, throwable);
+				failures.suppressed = 0;
+				failures.reported = now;
+			} else {
+				failures.suppressed++;
+				report = null;
+			}
+		}
+		if (report != null) this.onError.accept(report);
+	}
+
+	/**
+	 * Re-enables every disabled handler whose probe is due.<br>
+	 * A probed handler gets disabled again by its next failure and counts as suspect until then,
+	 * so its next success resets the probe-delay even with a threshold of one.
+	 */
+	private void probe() {
+		final long now = System.nanoTime();
+		if (now - this.nextProbe < 0) return;
+		synchronized (this) {
+			final FailurePolicy policy = this.failurePolicy;
+			long next = Long.MAX_VALUE;
+			for (final Map.Entry<IHandler<? extends AbstractEvent>, Failures> entry : this.failures.entrySet()) {
+				final Failures failures = entry.getValue();
+				if (!failures.disabled) continue;
+				if (now - failures.probe < 0) {
+					next = Math.min(next, failures.probe);
+					continue;
+				}
+				failures.disabled = false;
+				failures.consecutive = policy == null ? 0 : policy.threshold() - 1;
+				failures.probing = true;
+				this.suspects++;
+				if (!this.isMuted(entry.getKey())) this.insert(failures.clazz, entry.getKey());
+			}
+			this.nextProbe = next;
+		}
+	}
+
+	/**
+	 * @param group   The group our handler belongs to.
+	 * @param clazz   The class-group of our handler.
+	 * @param handler The handler we want to add.
+	 */
+	synchronized void register(
+		 final HandlerGroup group,
+		 final Class<? extends AbstractEvent> clazz,
+		 final IHandler<? extends AbstractEvent> handler
+	) {
+		if (this.grouped == null) this.grouped = new IdentityHashMap<>();
+		this.grouped.put(handler, group);
+		group.add(handler, clazz);
+		if (group.applied) this.insert(clazz, handler);
+	}
+
+	/**
+	 * Queues a group whose switch changed, its handlers get added or removed by the next call.
+	 *
+	 * @param group   The group we want to switch.
+	 * @param enabled Whether the group should be enabled.
+	 */
+	synchronized void toggle(
+		 final HandlerGroup group,
+		 final boolean enabled
+	) {
+		if (group.enabled == enabled) return;
+		group.enabled = enabled;
+		if (group.queued) return;
+		group.queued = true;
+		if (this.toggled == null) this.toggled = new ArrayList<>(2);
+		this.toggled.add(group);
+		this.dirty = true;
+	}
+
+	/**
+	 * Adds and removes the handlers of all toggled groups, every affected class-group gets rebuilt only once.<br>
+	 * Groups that got switched back and forth since the last call are skipped.
+	 */
+	private synchronized void applyGroups() {
+		if (!this.dirty) return;
+		this.dirty = false;
+
+		final Map<Class<? extends AbstractEvent>, List<IHandler<? extends AbstractEvent>>> added = new IdentityHashMap<>(2);
+		final Map<Class<? extends AbstractEvent>, Set<IHandler<? extends AbstractEvent>>> removed = new IdentityHashMap<>(2);
+		for (final HandlerGroup group : this.toggled) {
+			group.queued = false;
+			final boolean enabled = group.enabled;
+			if (enabled == group.applied) continue;
+			group.applied = enabled;
+			for (final IHandler<? extends AbstractEvent> handler : group.order) {
+				final Class<? extends AbstractEvent> clazz = group.members.get(handler);
+				if (enabled) {
+					final Failures failures = this.failures.get(handler);
+					if (failures == null || !failures.disabled) added.computeIfAbsent(clazz, key -> new ArrayList<>()).add(handler);
+				} else removed.computeIfAbsent(clazz, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(handler);
+			}
+		}
+		this.toggled.clear();
+
+		final Set<Class<? extends AbstractEvent>> classes = Collections.newSetFromMap(new IdentityHashMap<>());
+		classes.addAll(added.keySet());
+		classes.addAll(removed.keySet());
+		for (final Class<? extends AbstractEvent> clazz : classes) {
+			final IHandler<? extends AbstractEvent>[] current = this.handlers.getOrDefault(clazz, new IHandler<?>[0]);
+			final Set<IHandler<? extends AbstractEvent>> removals = removed.getOrDefault(clazz, Collections.emptySet());
+			final List<IHandler<? extends AbstractEvent>> additions = added.getOrDefault(clazz, Collections.emptyList());
+
+			final IHandler<? extends AbstractEvent>[] updated = new IHandler<?>[current.length + additions.size()];
+			int length = 0;
+			for (final IHandler<? extends AbstractEvent> handler : current) if (!removals.contains(handler)) updated[length++] = handler;
+			for (final IHandler<? extends AbstractEvent> handler : additions) updated[length++] = handler;
+			final IHandler<? extends AbstractEvent>[] compacted = length == updated.length ? updated : Arrays.copyOf(updated, length);
+
+			Arrays.sort(compacted, PRIORITY_ORDER);
+			if (compacted.length > 0 || current.length > 0) this.handlers.put(clazz, compacted);
+			if (this.handlersIndices != null) {
+				for (int index = 0 ; index < compacted.length ; index++) this.handlersIndices.put(compacted[index], index);
+			}
+		}
+	}
+
+	/**
+	 * @param handler The handler we want to check.
+	 *
+	 * @return true if our handler belongs to a group that is disabled right now.
+	 */
+	private boolean isMuted(final IHandler<? extends AbstractEvent> handler) {
+		final HandlerGroup group = this.grouped == null ? null : this.grouped.get(handler);
+		return group != null && !group.applied;
+	}
+
+	/**
+	 * @param handlers The handlers we want to search through.
+	 * @param handler  The handler we want to find.
+	 *
+	 * @return The index of the handler by identity or -1.
+	 */
+	private static int indexOf(
+		 final IHandler<? extends AbstractEvent>[] handlers,
+		 final IHandler<? extends AbstractEvent> handler
+	) {
+		for (int index = 0 ; index < handlers.length ; index++) {
+			if (handlers[index] == handler) return index;
+		}
+		return -1;
 	}
 
 	/**
@@ -164,7 +1010,7 @@ public final class TinyEvents {
 	}
 
 	/**
-	 * @return the internal handlers-map
+	 * @return the internal handlers-map, without the handlers inherited from our {@link TinyEvents#getParent() parent}
 	 *
 	 * @see TinyEvents#call(AbstractEvent)
 	 * @see TinyEvents#register(Class, IHandler)
@@ -177,7 +1023,7 @@ public final class TinyEvents {
 	}
 
 	/**
-	 * @return the internal handlers-indices-map
+	 * @return the internal handlers-indices-map or null in compact-mode
 	 *
 	 * @see TinyEvents#call(AbstractEvent)
 	 * @see TinyEvents#register(Class, IHandler)
@@ -190,6 +1036,211 @@ public final class TinyEvents {
 	}
 
 
+	/**
+	 * The error reported to the error-handler when a {@link FailurePolicy failure-policy} is set.<br>
+	 * It carries the thrown error as cause and skips capturing its own stack-trace.
+	 */
+	public static final class HandlerFailure extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private final transient IHandler<? extends AbstractEvent> handler;
+		private final Class<? extends AbstractEvent> clazz;
+		private final long failures, suppressed;
+		private final boolean disabled;
+
+		HandlerFailure(
+			 final IHandler<? extends AbstractEvent> handler,
+			 final Class<? extends AbstractEvent> clazz,
+			 final long failures,
+			 final long suppressed,
+			 final boolean disabled,
+			 final Throwable cause
+		) {
+			super(String.format(
+				 "The handler %s for %s failed %d times, %d reports were suppressed%s.",
+				 handler, clazz.getName(), failures, suppressed, disabled ? " and it got disabled" : ""
+			), cause, false, false);
+			this.handler = handler;
+			this.clazz = clazz;
+			this.failures = failures;
+			this.suppressed = suppressed;
+			this.disabled = disabled;
+		}
+
+		/**
+		 * @return The handler that threw.
+		 */
+		public IHandler<? extends AbstractEvent> getHandler() {
+			return this.handler;
+		}
+
+		/**
+		 * @return The class-group of the handler.
+		 */
+		public Class<? extends AbstractEvent> getClazz() {
+			return this.clazz;
+		}
+
+		/**
+		 * @return The amount of failures of the handler so far.
+		 */
+		public long getFailures() {
+			return this.failures;
+		}
+
+		/**
+		 * @return The amount of failures that weren't reported since the last report.
+		 */
+		public long getUnreported() {
+			return this.suppressed;
+		}
+
+		/**
+		 * @return true if this failure disabled the handler.
+		 */
+		public boolean isDisabled() {
+			return this.disabled;
+		}
+	}
+
+	/**
+	 * The estimated memory used by an event-manager to store its handlers.
+	 *
+	 * @see TinyEvents#footprint()
+	 */
+	public static final class Footprint {
+		private static final int OBJECT_HEADER = 12, ARRAY_HEADER = 16, REFERENCE = 4, ALIGNMENT = 8;
+
+		private final int classes;
+		private final long handlers, bytes;
+
+		Footprint(
+			 final int classes,
+			 final long handlers,
+			 final long bytes
+		) {
+			this.classes = classes;
+			this.handlers = handlers;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * @param fields The amount of 4 byte fields of our object.
+		 *
+		 * @return The aligned size of our object.
+		 */
+		static long object(final int fields) {
+			return align(OBJECT_HEADER + (long) fields * REFERENCE);
+		}
+
+		/**
+		 * @param length The length of our reference-array.
+		 *
+		 * @return The aligned size of our array.
+		 */
+		static long array(final int length) {
+			return align(ARRAY_HEADER + (long) length * REFERENCE);
+		}
+
+		/**
+		 * @param size The unaligned size.
+		 *
+		 * @return The size aligned to the object-alignment.
+		 */
+		private static long align(final long size) {
+			return (size + ALIGNMENT - 1) & -ALIGNMENT;
+		}
+
+		/**
+		 * @return The amount of event-classes with handlers.
+		 */
+		public int getClasses() {
+			return this.classes;
+		}
+
+		/**
+		 * @return The amount of registered handlers.
+		 */
+		public long getHandlers() {
+			return this.handlers;
+		}
+
+		/**
+		 * @return The estimated amount of bytes.
+		 */
+		public long getBytes() {
+			return this.bytes;
+		}
+
+		/**
+		 * @return The estimated amount of bytes per handler.
+		 */
+		public double getBytesPerHandler() {
+			return this.handlers == 0 ? 0 : (double) this.bytes / this.handlers;
+		}
+
+		public @Override String toString() {
+			return String.format(
+				 "Footprint[classes='%d', handlers='%d', bytes='%d', bytesPerHandler='%.2f']",
+				 this.classes, this.handlers, this.bytes, this.getBytesPerHandler()
+			);
+		}
+	}
+
+	/**
+	 * The handlers of a child merged with the ones inherited from its parent.
+	 */
+	private static final class Merged {
+		private final IHandler<? extends AbstractEvent>[] inherited, local, handlers;
+
+		/**
+		 * @param inherited The handlers of our parent, sorted by priority.
+		 * @param local     The handlers of our child, sorted by priority.
+		 */
+		Merged(
+			 final IHandler<? extends AbstractEvent>[] inherited,
+			 final IHandler<? extends AbstractEvent>[] local
+		) {
+			this.inherited = inherited;
+			this.local = local;
+			this.handlers = new IHandler<?>[inherited.length + local.length];
+
+			int parent = 0, child = 0, index = 0;
+			while (parent < inherited.length && child < local.length) {
+				this.handlers[index++] = PRIORITY_ORDER.compare(inherited[parent], local[child]) <= 0
+					 ? inherited[parent++]
+					 : local[child++];
+			}
+			while (parent < inherited.length) this.handlers[index++] = inherited[parent++];
+			while (child < local.length) this.handlers[index++] = local[child++];
+		}
+	}
+
+	/**
+	 * The failure-state of a handler that threw at least once.
+	 */
+	private static final class Failures {
+		private static final long NEVER = Long.MIN_VALUE;
+
+		private final Class<? extends AbstractEvent> clazz;
+		private final long baseDelay;
+		private int consecutive;
+		private long total, suppressed, reported = NEVER, probe, delay;
+		private boolean disabled, probing;
+
+		/**
+		 * @param clazz     The class-group of our handler.
+		 * @param baseDelay The initial probe-delay of our handler.
+		 */
+		Failures(
+			 final Class<? extends AbstractEvent> clazz,
+			 final long baseDelay
+		) {
+			this.clazz = clazz;
+			this.baseDelay = this.delay = baseDelay;
+		}
+	}
+
 	/**
 	 * @param <K> The object-type we want to use.
 	 */
@@ -286,6 +1337,19 @@ public final class TinyEvents {
 			}
 		}
 
+		/**
+		 * @return The estimated memory used by this map, its buckets and entries.
+		 *
+		 * @see TinyEvents#footprint()
+		 */
+		long footprint() {
+			long bytes = Footprint.object(2) + Footprint.array(this.table.length);
+			for (final LinkedList<Entry<K>> entries : this.table) {
+				if (entries != null) bytes += Footprint.object(4) + entries.size() * (Footprint.object(3) + Footprint.object(2));
+			}
+			return bytes;
+		}
+
 		/**
 		 * @param key The key we want the hash-value from.
 		 *
@@ -0,0 +1,358 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import zip.luzey.tinyevents.EventHandlers.IHandler;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Routes events by dot-separated topics like {@code orders.eu.created} instead of their class.<br>
+ * Patterns may use {@code *} for exactly one segment and {@code #} for any amount of segments,
+ * e.g. {@code orders.*.created} or {@code orders.#}. Subscribers get called from the highest to the lowest priority,
+ * subscribers of equal priority keep their subscription-order.
+ * <p>
+ * Patterns are kept in a trie, the subscribers a topic resolves to get cached per topic until the subscriptions
+ * change, so publishing to a known topic is a single map-lookup. A full cache evicts one topic per new one,
+ * topics that got published to since the last sweep get a second chance. An {@link TinyEvents event-manager} can be put
+ * behind a pattern with {@code router.subscribe("orders.#", events::call)}.
+ *
+ * @param <E> The type of our events.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@SuppressWarnings("unused")
+public final class TopicRouter<E extends AbstractEvent> {
+	/**
+	 * The default amount of topics we cache.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 4096;
+
+	private static final IHandler<?>[] EMPTY = new IHandler<?>[0];
+
+	private final Consumer<Throwable> onError;
+	private final int cacheSize;
+	private final Node root = new Node();
+	// package-private for tests, the clock holds the same entries in eviction-order and is guarded by us.
+	final Map<String, Cached<E>> resolved = new ConcurrentHashMap<>();
+	private final ArrayDeque<Cached<E>> clock = new ArrayDeque<>();
+	private long sequence;
+
+	/**
+	 * Creates a router with a {@link TopicRouter#DEFAULT_CACHE_SIZE default cache} and
+	 * {@link TinyEvents#DEFAULT_ON_ERROR error-handler}.
+	 */
+	public TopicRouter() {
+		this(TinyEvents.DEFAULT_ON_ERROR, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param onError   The error-handler for subscribers that throw.
+	 * @param cacheSize The amount of topics we cache.
+	 */
+	public TopicRouter(
+		 final Consumer<Throwable> onError,
+		 final int cacheSize
+	) {
+		if (cacheSize < 1) throw new IllegalArgumentException("The cache-size has to be positive.");
+		this.onError = onError;
+		this.cacheSize = cacheSize;
+	}
+
+	/**
+	 * @param pattern The pattern of the topics we want to receive.
+	 * @param handler The handler we want to add.
+	 */
+	public synchronized void subscribe(
+		 final String pattern,
+		 final IHandler<? super E> handler
+	) {
+		Node node = this.root;
+		for (final String segment : split(pattern)) node = node.child(segment);
+		node.subscriptions.add(new Subscription<>(handler, this.sequence++));
+		this.invalidate();
+	}
+
+	/**
+	 * @param pattern The pattern our handler got subscribed with.
+	 * @param handler The handler we want to remove.
+	 *
+	 * @return true if the handler was subscribed to the pattern.
+	 */
+	public synchronized boolean unsubscribe(
+		 final String pattern,
+		 final IHandler<? super E> handler
+	) {
+		final String[] segments = split(pattern);
+		final Deque<Node> path = new ArrayDeque<>(segments.length);
+		Node node = this.root;
+		for (final String segment : segments) {
+			path.push(node);
+			node = node.get(segment);
+			if (node == null) return false;
+		}
+		if (!node.subscriptions.removeIf(subscription -> subscription.handler == handler)) return false;
+		this.invalidate();
+
+		// prune the branches that lead to nothing anymore.
+		for (int index = segments.length - 1 ; index >= 0 && node.isEmpty() ; index--) {
+			final Node parent = path.pop();
+			parent.remove(segments[index]);
+			node = parent;
+		}
+		return true;
+	}
+
+	/**
+	 * Calls all subscribers whose pattern matches the topic.
+	 *
+	 * @param topic The topic of our event.
+	 * @param event The event we want to publish.
+	 *
+	 * @return The amount of subscribers we called.
+	 */
+	public int publish(
+		 final String topic,
+		 final E event
+	) {
+		final IHandler<? super E>[] handlers = this.handlers(topic);
+		for (final IHandler<? super E> handler : handlers) {
+			try {
+				handler.handle(event);
+			} catch (final Throwable throwable) {
+				this.onError.accept(throwable);
+			}
+		}
+		return handlers.length;
+	}
+
+	/**
+	 * @param topic The topic we want to check.
+	 *
+	 * @return true if at least one pattern matches the topic.
+	 */
+	public boolean hasSubscribers(final String topic) {
+		return this.handlers(topic).length != 0;
+	}
+
+	/**
+	 * @param topic The topic we want the subscribers of.
+	 *
+	 * @return The cached subscribers of the topic or the freshly resolved ones.
+	 */
+	private IHandler<? super E>[] handlers(final String topic) {
+		final Cached<E> cached = this.resolved.get(topic);
+		if (cached == null) return this.resolve(topic);
+		if (!cached.referenced) cached.referenced = true;
+		return cached.handlers;
+	}
+
+	/**
+	 * Matches the topic against our trie and caches the result.<br>
+	 * Runs under our lock, so a result never gets cached after the subscriptions it was resolved from changed.
+	 *
+	 * @param topic The topic we want the subscribers of.
+	 *
+	 * @return The subscribers of the topic, ordered by priority.
+	 */
+	@SuppressWarnings("unchecked")
+	private synchronized IHandler<? super E>[] resolve(final String topic) {
+		final Cached<E> cached = this.resolved.get(topic);
+		if (cached != null) return cached.handlers;
+
+		final IHandler<? super E>[] handlers;
+		final Set<Subscription<E>> matches = new LinkedHashSet<>();
+		this.root.match(topic.split("\\.", -1), 0, matches);
+		if (matches.isEmpty()) handlers = (IHandler<? super E>[]) EMPTY;
+		else {
+			final List<Subscription<E>> sorted = new ArrayList<>(matches);
+			sorted.sort(Subscription.ORDER);
+			handlers = (IHandler<? super E>[]) new IHandler<?>[sorted.size()];
+			for (int index = 0 ; index < handlers.length ; index++) handlers[index] = sorted.get(index).handler;
+		}
+
+		if (this.clock.size() >= this.cacheSize) this.evict();
+		final Cached<E> entry = new Cached<>(topic, handlers);
+		this.clock.addLast(entry);
+		this.resolved.put(topic, entry);
+		return handlers;
+	}
+
+	/**
+	 * Removes the first topic of our clock that didn't get published to since its last sweep,
+	 * the ones that did get moved to its end.
+	 */
+	private void evict() {
+		while (true) {
+			final Cached<E> entry = this.clock.pollFirst();
+			if (entry == null) return;
+			if (entry.referenced) {
+				entry.referenced = false;
+				this.clock.addLast(entry);
+			} else {
+				this.resolved.remove(entry.topic);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Drops all cached topics after our subscriptions changed.
+	 */
+	private void invalidate() {
+		this.resolved.clear();
+		this.clock.clear();
+	}
+
+	/**
+	 * @param pattern The pattern we want to split.
+	 *
+	 * @return The segments of our pattern.
+	 *
+	 * @throws IllegalArgumentException if a segment is empty or mixes wildcards with text.
+	 */
+	private static String[] split(final String pattern) {
+		final String[] segments = pattern.split("\\.", -1);
+		for (final String segment : segments) {
+			if (segment.isEmpty() || segment.length() > 1 && (segment.indexOf('*') >= 0 || segment.indexOf('#') >= 0)) {
+				throw new IllegalArgumentException(String.format("The pattern %s has an invalid segment.", pattern));
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * A node of our trie, wildcards get their own children, so matching never compares strings for them.
+	 */
+	private static final class Node {
+		private Map<String, Node> children;
+		private Node any, all;
+		private final List<Subscription<?>> subscriptions = new ArrayList<>(1);
+
+		private Node get(final String segment) {
+			return switch (segment) {
+				case "*" -> this.any;
+				case "#" -> this.all;
+				default -> this.children == null ? null : this.children.get(segment);
+			};
+		}
+
+		private Node child(final String segment) {
+			Node node = this.get(segment);
+			if (node != null) return node;
+			node = new Node();
+			switch (segment) {
+				case "*" -> this.any = node;
+				case "#" -> this.all = node;
+				default -> {
+					if (this.children == null) this.children = new HashMap<>(4);
+					this.children.put(segment, node);
+				}
+			}
+			return node;
+		}
+
+		private void remove(final String segment) {
+			switch (segment) {
+				case "*" -> this.any = null;
+				case "#" -> this.all = null;
+				default -> {
+					if (this.children != null) this.children.remove(segment);
+				}
+			}
+		}
+
+		private boolean isEmpty() {
+			return this.subscriptions.isEmpty() && this.any == null && this.all == null
+			       && (this.children == null || this.children.isEmpty());
+		}
+
+		/**
+		 * @param segments The segments of our topic.
+		 * @param index    The first segment this node has to match.
+		 * @param matches  The subscriptions we collect.
+		 * @param <E>      The type of our events.
+		 */
+		@SuppressWarnings("unchecked")
+		private <E extends AbstractEvent> void match(
+			 final String[] segments,
+			 final int index,
+			 final Set<Subscription<E>> matches
+		) {
+			if (index == segments.length) {
+				for (final Subscription<?> subscription : this.subscriptions) matches.add((Subscription<E>) subscription);
+				if (this.all != null) this.all.match(segments, index, matches);
+				return;
+			}
+			if (this.children != null) {
+				final Node child = this.children.get(segments[index]);
+				if (child != null) child.match(segments, index + 1, matches);
+			}
+			if (this.any != null) this.any.match(segments, index + 1, matches);
+			if (this.all != null) {
+				for (int next = index ; next <= segments.length ; next++) this.all.match(segments, next, matches);
+			}
+		}
+	}
+
+	/**
+	 * The resolved subscribers of a topic.
+	 *
+	 * @param <E> The type of our events.
+	 */
+	static final class Cached<E extends AbstractEvent> {
+		private final String topic;
+		private final IHandler<? super E>[] handlers;
+
+		// set by every hit, cleared by the sweeps of our clock.
+		private volatile boolean referenced;
+
+		private Cached(
+			 final String topic,
+			 final IHandler<? super E>[] handlers
+		) {
+			this.topic = topic;
+			this.handlers = handlers;
+		}
+	}
+
+	/**
+	 * A subscribed handler with its subscription-order.
+	 *
+	 * @param <E> The type of our events.
+	 */
+	private static final class Subscription<E extends AbstractEvent> {
+		private static final Comparator<Subscription<?>> ORDER = (subscription1, subscription2) -> {
+			final int priority = Short.compare(subscription2.handler.priority(), subscription1.handler.priority());
+			return priority != 0 ? priority : Long.compare(subscription1.sequence, subscription2.sequence);
+		};
+
+		private final IHandler<? super E> handler;
+		private final long sequence;
+
+		private Subscription(
+			 final IHandler<? super E> handler,
+			 final long sequence
+		) {
+			this.handler = handler;
+			this.sequence = sequence;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+/**
+ * Runs blocking handlers on virtual threads, which don't exist below Java 21.<br>
+ * The multi-release jar replaces this class with the one in {@code src/main/java21} on Java 21 and above.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ * @see TinyEvents#setVirtualThreads(boolean)
+ */
+final class VirtualThreads {
+	private VirtualThreads() {
+	}
+
+	/**
+	 * A method instead of a constant, since javac would inline a constant into {@link TinyEvents}
+	 * and the multi-release jar only replaces this class.
+	 *
+	 * @return Whether virtual threads are available.
+	 */
+	static boolean supported() {
+		return false;
+	}
+
+	/**
+	 * Runs all tasks and the inline-task one after another on the calling thread.
+	 *
+	 * @param tasks  The tasks we want to run on virtual threads.
+	 * @param count  The amount of tasks in our array.
+	 * @param inline The task we want to run on the calling thread meanwhile.
+	 */
+	static void invokeAll(
+		 final Runnable[] tasks,
+		 final int count,
+		 final Runnable inline
+	) {
+		for (int index = 0 ; index < count ; index++) tasks[index].run();
+		inline.run();
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs blocking handlers on virtual threads, the Java 21 variant of this class.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ * @see TinyEvents#setVirtualThreads(boolean)
+ */
+final class VirtualThreads {
+	private VirtualThreads() {
+	}
+
+	/**
+	 * @return Whether virtual threads are available.
+	 */
+	static boolean supported() {
+		return true;
+	}
+
+	/**
+	 * Starts a virtual thread per task, runs the inline-task on the calling thread and waits for all of them.<br>
+	 * The executor joins its threads when it gets closed, so no task outlives this call.
+	 *
+	 * @param tasks  The tasks we want to run on virtual threads.
+	 * @param count  The amount of tasks in our array.
+	 * @param inline The task we want to run on the calling thread meanwhile.
+	 */
+	static void invokeAll(
+		 final Runnable[] tasks,
+		 final int count,
+		 final Runnable inline
+	) {
+		try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int index = 0 ; index < count ; index++) executor.execute(tasks[index]);
+			inline.run();
+		}
+	}
+}
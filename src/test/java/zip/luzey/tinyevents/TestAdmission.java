@@ -0,0 +1,158 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link Admission admissions}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Admission.java")
+class TestAdmission {
+	/**
+	 * Samples every n-th event of a class-group and leaves others alone.
+	 */
+	@Test
+	@DisplayName("oneIn")
+	void oneIn() {
+		final TinyEvents events = new TinyEvents();
+		final AtomicInteger moves = new AtomicInteger(), clicks = new AtomicInteger();
+		events.register(MoveEvent.class, event -> moves.incrementAndGet());
+		events.register(ClickEvent.class, event -> clicks.incrementAndGet());
+
+		final Admission admission = Admission.oneIn(10);
+		events.setAdmission(MoveEvent.class, admission);
+		assertSame(admission, events.getAdmission(MoveEvent.class));
+		for (int index = 0 ; index < 1000 ; index++) {
+			events.call(new MoveEvent(index));
+			events.call(new ClickEvent());
+		}
+		assertEquals(100, moves.get());
+		assertEquals(1000, clicks.get());
+		assertEquals(100, admission.getAdmitted());
+		assertEquals(900, admission.getDropped());
+
+		events.setAdmission(MoveEvent.class, null);
+		assertNull(events.getAdmission(MoveEvent.class));
+		events.call(new MoveEvent(0));
+		assertEquals(101, moves.get());
+	}
+
+	/**
+	 * Admits a burst and then drops until tokens refill.
+	 */
+	@Test
+	@DisplayName("rateLimit")
+	void rateLimit() throws InterruptedException {
+		final Admission admission = Admission.rateLimit(100, 1, TimeUnit.SECONDS, 5);
+		int admitted = 0;
+		for (int index = 0 ; index < 50 ; index++) if (admission.admit()) admitted++;
+		assertTrue(admitted >= 5 && admitted <= 6, "admitted " + admitted);
+
+		Thread.sleep(50);
+		assertTrue(admission.admit());
+		assertEquals(admitted + 1, admission.getAdmitted());
+		assertEquals(50 - admitted, admission.getDropped());
+	}
+
+	/**
+	 * Leaves the budget untouched by calls without listeners, eager or lazy.
+	 */
+	@Test
+	@DisplayName("listeners")
+	void listeners() {
+		final TinyEvents events = new TinyEvents();
+		final Admission admission = Admission.rateLimit(1, 1, TimeUnit.HOURS, 1);
+		events.setAdmission(ClickEvent.class, admission);
+		for (int index = 0 ; index < 10 ; index++) {
+			events.call(new ClickEvent());
+			events.call(ClickEvent.class, ClickEvent::new);
+		}
+		assertEquals(0, admission.getAdmitted());
+		assertEquals(0, admission.getDropped());
+
+		final AtomicInteger clicks = new AtomicInteger();
+		events.register(ClickEvent.class, event -> clicks.incrementAndGet());
+		events.call(new ClickEvent());
+		events.call(new ClickEvent());
+		assertEquals(1, clicks.get());
+		assertEquals(1, admission.getAdmitted());
+		assertEquals(1, admission.getDropped());
+	}
+
+	/**
+	 * Admits roughly the given share of events and combines with other admissions.
+	 */
+	@Test
+	@DisplayName("probability & and")
+	void probability() {
+		final Admission admission = Admission.probability(0.25);
+		for (int index = 0 ; index < 100_000 ; index++) admission.admit();
+		assertEquals(0.25, admission.getAdmitted() / 100_000.0, 0.02);
+
+		final Admission none = Admission.oneIn(2).and(Admission.probability(0));
+		for (int index = 0 ; index < 100 ; index++) assertFalse(none.admit());
+		assertEquals(100, none.getDropped());
+		assertThrows(IllegalArgumentException.class, () -> Admission.probability(1.5));
+	}
+
+	static final class MoveEvent extends AbstractEvent {
+		private final int x;
+
+		MoveEvent(final int x) {
+			this.x = x;
+		}
+
+		public @Override int hashCode() {
+			return Objects.hash(this.x);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof MoveEvent event && this.x == event.x;
+		}
+
+		public @Override String toString() {
+			return "MoveEvent[x='" + this.x + "']";
+		}
+	}
+
+	static final class ClickEvent extends AbstractEvent {
+		public @Override int hashCode() {
+			return 0;
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof ClickEvent;
+		}
+
+		public @Override String toString() {
+			return "ClickEvent[]";
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link EventTracer event-tracer}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("EventTracer.java")
+class TestEventTracer {
+	/**
+	 * Links events called from handlers to the dispatch that caused them.
+	 */
+	@Test
+	@DisplayName("causality")
+	void causality() {
+		final TinyEvents events = new TinyEvents();
+		final EventTracer tracer = new EventTracer(16, 1);
+		events.setTracer(tracer);
+		events.register(ChainEvent.class, event -> {
+			if (event.remaining > 0) events.call(new ChainEvent(event.remaining - 1));
+		});
+
+		events.call(new ChainEvent(3));
+		events.call(new ChainEvent(0));
+		assertNull(tracer.current());
+
+		final List<EventTracer.Span> spans = tracer.spans();
+		assertEquals(5, spans.size());
+		final EventTracer.Span root = spans.get(3);
+		assertEquals(0, root.getParentId());
+		for (int depth = 0 ; depth < 3 ; depth++) {
+			assertEquals(3 - depth, spans.get(depth).getDepth());
+			assertEquals(spans.get(depth + 1).getId(), spans.get(depth).getParentId());
+			assertEquals(root.getId(), spans.get(depth).getTraceId());
+		}
+		assertEquals(0, spans.get(4).getDepth());
+		assertNotEquals(root.getTraceId(), spans.get(4).getTraceId());
+	}
+
+	/**
+	 * Samples whole traces and keeps only the latest spans.
+	 */
+	@Test
+	@DisplayName("sampling & ring")
+	void sampling() {
+		final TinyEvents events = new TinyEvents();
+		events.register(ChainEvent.class, event -> {
+			if (event.remaining > 0) events.call(new ChainEvent(event.remaining - 1));
+		});
+
+		final EventTracer none = new EventTracer(16, 0);
+		events.setTracer(none);
+		events.call(new ChainEvent(5));
+		assertEquals(0, none.getRecorded());
+
+		final EventTracer ring = new EventTracer(5, 1);
+		events.setTracer(ring);
+		for (int index = 0 ; index < 4 ; index++) events.call(new ChainEvent(2));
+		assertEquals(12, ring.getRecorded());
+		assertEquals(8, ring.spans().size());
+		assertEquals(0, ring.spans().get(7).getDepth());
+		assertEquals(10, ring.spans().get(7).getId());
+	}
+
+	/**
+	 * Keeps the parent across delayed calls and parallel priority-tiers.
+	 */
+	@Test
+	@DisplayName("async")
+	void async() throws InterruptedException {
+		final TinyEvents events = new TinyEvents();
+		final EventTracer tracer = new EventTracer(16, 1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		events.setTracer(tracer);
+		events.setParallelism(ForkJoinPool.commonPool());
+		events.register(ChainEvent.class, event -> {
+			if (event.remaining == 2) events.callLater(new ChainEvent(1), 1, TimeUnit.MILLISECONDS);
+			else if (event.remaining == 0) latch.countDown();
+		});
+		events.register(ChainEvent.class, event -> {
+			if (event.remaining == 1) events.call(new ChainEvent(0));
+		});
+
+		events.call(new ChainEvent(2));
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Thread.sleep(10);
+
+		final List<EventTracer.Span> spans = tracer.spans();
+		assertEquals(3, spans.size());
+		final EventTracer.Span root = spans.get(0), delayed = spans.get(2), nested = spans.get(1);
+		assertEquals(root.getId(), delayed.getParentId());
+		assertEquals(delayed.getId(), nested.getParentId());
+		assertEquals(root.getId(), nested.getTraceId());
+		assertEquals(2, nested.getDepth());
+	}
+
+	static final class ChainEvent extends AbstractEvent {
+		private final int remaining;
+
+		ChainEvent(final int remaining) {
+			this.remaining = remaining;
+		}
+
+		public @Override int hashCode() {
+			return Objects.hash(this.remaining);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof ChainEvent event && this.remaining == event.remaining;
+		}
+
+		public @Override String toString() {
+			return "ChainEvent[remaining='" + this.remaining + "']";
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link FairScheduler fair scheduler}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("FairScheduler.java")
+class TestFairScheduler {
+	/**
+	 * Serves a rare class-group right away although a flooding one was queued first.
+	 */
+	@Test
+	@DisplayName("starvation")
+	void starvation() {
+		final TinyEvents events = new TinyEvents();
+		final List<String> order = new ArrayList<>();
+		events.register(FloodEvent.class, event -> order.add("flood"));
+		events.register(CriticalEvent.class, event -> order.add("critical"));
+
+		final List<Runnable> drainers = new ArrayList<>();
+		final FairScheduler scheduler = new FairScheduler(events, drainers::add, 1, 100_000);
+		for (int index = 0 ; index < 10_000 ; index++) assertTrue(scheduler.submit(new FloodEvent(index)));
+		for (int index = 0 ; index < 5 ; index++) assertTrue(scheduler.submit(new CriticalEvent()));
+		assertEquals(10_000, scheduler.getPending(FloodEvent.class));
+
+		assertEquals(1, drainers.size());
+		drainers.get(0).run();
+		assertEquals(10_005, order.size());
+		assertEquals(List.of("flood", "critical", "flood", "critical", "flood", "critical"), order.subList(0, 6));
+		assertEquals(0, scheduler.getPending(FloodEvent.class));
+	}
+
+	/**
+	 * Serves class-groups by their explicit or derived weights.
+	 */
+	@Test
+	@DisplayName("weights")
+	void weights() {
+		final TinyEvents events = new TinyEvents();
+		final StringBuilder order = new StringBuilder();
+		events.register(FloodEvent.class, event -> order.append('f'));
+		events.register(CriticalEvent.class, new EventHandlers.IHandler<>() {
+			public @Override void handle(final CriticalEvent event) {
+				order.append('c');
+			}
+
+			public @Override short priority() {
+				return 2;
+			}
+		});
+
+		final List<Runnable> drainers = new ArrayList<>();
+		final FairScheduler scheduler = new FairScheduler(events, drainers::add, 1, 100);
+		assertEquals(3, scheduler.getWeight(CriticalEvent.class));
+		for (int index = 0 ; index < 4 ; index++) scheduler.submit(new FloodEvent(index));
+		for (int index = 0 ; index < 6 ; index++) scheduler.submit(new CriticalEvent());
+		drainers.remove(0).run();
+		assertEquals("fcccfcccff", order.toString());
+
+		order.setLength(0);
+		scheduler.setWeight(FloodEvent.class, 2);
+		scheduler.setWeight(CriticalEvent.class, 1);
+		for (int index = 0 ; index < 4 ; index++) scheduler.submit(new FloodEvent(index));
+		for (int index = 0 ; index < 2 ; index++) scheduler.submit(new CriticalEvent());
+		drainers.remove(0).run();
+		assertEquals("ffcffc", order.toString());
+	}
+
+	/**
+	 * Keeps the order per class-group with multiple drainers and rejects events over the capacity.
+	 */
+	@Test
+	@DisplayName("order & capacity")
+	void order() throws InterruptedException {
+		final TinyEvents events = new TinyEvents();
+		final int count = 50_000;
+		final CountDownLatch latch = new CountDownLatch(count);
+		final AtomicInteger next = new AtomicInteger(), outOfOrder = new AtomicInteger();
+		events.register(FloodEvent.class, event -> {
+			if (next.getAndIncrement() != event.id) outOfOrder.incrementAndGet();
+			latch.countDown();
+		});
+		events.register(CriticalEvent.class, event -> {
+		});
+
+		final FairScheduler scheduler = new FairScheduler(events, ForkJoinPool.commonPool(), 4, count);
+		for (int index = 0 ; index < count ; index++) {
+			assertTrue(scheduler.submit(new FloodEvent(index)));
+			scheduler.submit(new CriticalEvent());
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(0, outOfOrder.get());
+
+		final FairScheduler full = new FairScheduler(events, task -> {
+		}, 1, 2);
+		assertTrue(full.submit(new CriticalEvent()));
+		assertTrue(full.submit(new CriticalEvent()));
+		assertFalse(full.submit(new CriticalEvent()));
+		full.close();
+		assertFalse(full.submit(new FloodEvent(0)));
+		assertEquals(2, full.getRejected());
+	}
+
+	static final class FloodEvent extends AbstractEvent {
+		private final int id;
+
+		FloodEvent(final int id) {
+			this.id = id;
+		}
+
+		public @Override int hashCode() {
+			return Objects.hash(this.id);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof FloodEvent event && this.id == event.id;
+		}
+
+		public @Override String toString() {
+			return "FloodEvent[id='" + this.id + "']";
+		}
+	}
+
+	static final class CriticalEvent extends AbstractEvent {
+		public @Override int hashCode() {
+			return 0;
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof CriticalEvent;
+		}
+
+		public @Override String toString() {
+			return "CriticalEvent[]";
+		}
+	}
+}
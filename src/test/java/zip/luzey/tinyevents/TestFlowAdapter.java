@@ -0,0 +1,149 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link FlowAdapter flow-adapter}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("FlowAdapter.java")
+class TestFlowAdapter {
+	/**
+	 * Delivers only requested events and drops the oldest ones when the buffer is full.
+	 */
+	@Test
+	@DisplayName("publisher & demand")
+	@SuppressWarnings("deprecation")
+	void demand() {
+		final TinyEvents events = new TinyEvents();
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		try (final FlowAdapter.EventPublisher<IdEvent> publisher = FlowAdapter.publisher(
+			 events, IdEvent.class, 4, FlowAdapter.Overflow.DROP_OLDEST
+		)) {
+			publisher.subscribe(subscriber);
+			subscriber.subscription.request(2);
+			for (int id = 0 ; id < 10 ; id++) events.call(new IdEvent(id));
+			assertEquals(List.of(0, 1), subscriber.received);
+
+			subscriber.subscription.request(10);
+			assertEquals(List.of(0, 1, 6, 7, 8, 9), subscriber.received);
+			events.call(new IdEvent(10));
+			assertEquals(List.of(0, 1, 6, 7, 8, 9, 10), subscriber.received);
+		}
+		assertTrue(subscriber.completed);
+		assertNull(events.getHandlers().get(IdEvent.class));
+	}
+
+	/**
+	 * Cancels the subscription and signals an error on overflow.
+	 */
+	@Test
+	@DisplayName("publisher & overflow")
+	@SuppressWarnings("deprecation")
+	void overflow() {
+		final TinyEvents events = new TinyEvents();
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		final FlowAdapter.EventPublisher<IdEvent> publisher = FlowAdapter.publisher(
+			 events, IdEvent.class, 2, FlowAdapter.Overflow.ERROR
+		);
+		publisher.subscribe(subscriber);
+		for (int id = 0 ; id < 3 ; id++) events.call(new IdEvent(id));
+
+		assertTrue(subscriber.error instanceof IllegalStateException);
+		assertEquals(0, publisher.subscriptions());
+		assertNull(events.getHandlers().get(IdEvent.class));
+		subscriber.subscription.request(5);
+		assertTrue(subscriber.received.isEmpty());
+	}
+
+	/**
+	 * Feeds a publisher into our event-manager.
+	 */
+	@Test
+	@DisplayName("subscriber")
+	void subscriber() throws InterruptedException {
+		final int count = 10_000;
+		final TinyEvents events = new TinyEvents();
+		final CountDownLatch latch = new CountDownLatch(count);
+		events.register(IdEvent.class, event -> latch.countDown());
+
+		try (final SubmissionPublisher<IdEvent> publisher = new SubmissionPublisher<>()) {
+			publisher.subscribe(FlowAdapter.subscriber(events, 16, Throwable::printStackTrace));
+			for (int id = 0 ; id < count ; id++) publisher.submit(new IdEvent(id));
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+	}
+
+	static final class RecordingSubscriber implements Flow.Subscriber<IdEvent> {
+		private final List<Integer> received = new ArrayList<>();
+		private Flow.Subscription subscription;
+		private Throwable error;
+		private boolean completed;
+
+		public @Override void onSubscribe(final Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		public @Override void onNext(final IdEvent event) {
+			this.received.add(event.id);
+		}
+
+		public @Override void onError(final Throwable throwable) {
+			this.error = throwable;
+		}
+
+		public @Override void onComplete() {
+			this.completed = true;
+		}
+	}
+
+	static final class IdEvent extends AbstractEvent {
+		private final int id;
+
+		IdEvent(final int id) {
+			this.id = id;
+		}
+
+		public @Override int hashCode() {
+			return Integer.hashCode(this.id);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof IdEvent event && this.id == event.id;
+		}
+
+		public @Override String toString() {
+			return "IdEvent[id='" + this.id + "']";
+		}
+	}
+}
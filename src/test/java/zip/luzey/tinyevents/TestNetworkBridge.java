@@ -0,0 +1,226 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link NetworkBridge network bridge}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("NetworkBridge.java")
+class TestNetworkBridge {
+	private static final EventCodec.Registry CODECS = new EventCodec.Registry().register(
+		 1, MessageEvent.class, new EventCodec<>() {
+			 public @Override void encode(final MessageEvent event, final ByteBuffer buffer) {
+				 buffer.putLong(event.id);
+				 buffer.put(event.message.getBytes(StandardCharsets.UTF_8));
+			 }
+
+			 public @Override MessageEvent decode(final ByteBuffer buffer) {
+				 final long id = buffer.getLong();
+				 final byte[] message = new byte[buffer.remaining()];
+				 buffer.get(message);
+				 return new MessageEvent(id, new String(message, StandardCharsets.UTF_8));
+			 }
+		 }
+	);
+
+	/**
+	 * Forwards events in order over a loopback tcp-connection.
+	 */
+	@Test
+	@DisplayName("tcp")
+	void tcp() throws Exception {
+		final int count = 200_000;
+		final TinyEvents source = new TinyEvents(), target = new TinyEvents();
+		final CountDownLatch latch = new CountDownLatch(count);
+		final AtomicLong next = new AtomicLong();
+		target.register(MessageEvent.class, event -> {
+			if (next.getAndIncrement() == event.id && "ping".equals(event.message)) latch.countDown();
+		});
+
+		try (
+			 final NetworkBridge.Receiver receiver = NetworkBridge.listen(
+				  new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				  target, CODECS, Throwable::printStackTrace
+			 );
+			 final NetworkBridge.Sender sender = NetworkBridge.connect(receiver.address(), CODECS, Throwable::printStackTrace)
+		) {
+			sender.forward(source, MessageEvent.class);
+			for (long id = 0 ; id < count ; id++) source.call(new MessageEvent(id, "ping"));
+			assertTrue(latch.await(30, TimeUnit.SECONDS));
+		}
+	}
+
+	/**
+	 * Buffers events until the receiver shows up on its unix-domain socket.
+	 */
+	@Test
+	@DisplayName("unix & reconnect")
+	void unix() throws Exception {
+		final Path directory = Files.createTempDirectory("tinyevents");
+		final UnixDomainSocketAddress address = UnixDomainSocketAddress.of(directory.resolve("bridge.sock"));
+		final TinyEvents target = new TinyEvents();
+		final CountDownLatch latch = new CountDownLatch(100);
+		target.register(MessageEvent.class, event -> latch.countDown());
+
+		try (final NetworkBridge.Sender sender = NetworkBridge.connect(address, CODECS, Throwable::printStackTrace)) {
+			for (long id = 0 ; id < 50 ; id++) assertTrue(sender.publish(new MessageEvent(id, "early")));
+			assertFalse(sender.connected());
+
+			try (final NetworkBridge.Receiver ignored = NetworkBridge.listen(address, target, CODECS, Throwable::printStackTrace)) {
+				for (long id = 50 ; id < 100 ; id++) sender.publish(new MessageEvent(id, "late"));
+				assertTrue(latch.await(10, TimeUnit.SECONDS));
+				assertTrue(sender.connected());
+			}
+		} finally {
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	/**
+	 * Drops the connections of a closed receiver, so the sender reconnects to the next one.
+	 */
+	@Test
+	@DisplayName("receiver restart")
+	void restart() throws Exception {
+		final Path directory = Files.createTempDirectory("tinyevents");
+		final UnixDomainSocketAddress address = UnixDomainSocketAddress.of(directory.resolve("bridge.sock"));
+		final TinyEvents target = new TinyEvents();
+		final CountDownLatch first = new CountDownLatch(1), second = new CountDownLatch(1);
+		target.register(MessageEvent.class, event -> {
+			if ("first".equals(event.message)) first.countDown();
+			else if ("second".equals(event.message)) second.countDown();
+		});
+
+		try (final NetworkBridge.Sender sender = NetworkBridge.connect(address, CODECS, throwable -> {
+		})) {
+			try (final NetworkBridge.Receiver ignored = NetworkBridge.listen(address, target, CODECS, Throwable::printStackTrace)) {
+				sender.publish(new MessageEvent(0, "first"));
+				assertTrue(first.await(10, TimeUnit.SECONDS));
+			}
+
+			final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (sender.connected() && System.nanoTime() < deadline) {
+				sender.publish(new MessageEvent(1, "lost"));
+				Thread.sleep(10);
+			}
+			assertFalse(sender.connected());
+
+			try (final NetworkBridge.Receiver ignored = NetworkBridge.listen(address, target, CODECS, Throwable::printStackTrace)) {
+				while (!sender.connected() && System.nanoTime() < deadline) Thread.sleep(10);
+				assertTrue(sender.publish(new MessageEvent(2, "second")));
+				assertTrue(second.await(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	/**
+	 * Drops events whose codec throws without breaking the frames around them.
+	 */
+	@Test
+	@DisplayName("poison")
+	void poison() throws Exception {
+		final EventCodec.Registry codecs = new EventCodec.Registry().register(
+			 1, MessageEvent.class, new EventCodec<>() {
+				 public @Override void encode(final MessageEvent event, final ByteBuffer buffer) {
+					 buffer.putLong(event.id);
+					 if ("poison".equals(event.message)) throw new IllegalStateException("poisoned codec");
+					 buffer.put(event.message.getBytes(StandardCharsets.UTF_8));
+				 }
+
+				 public @Override MessageEvent decode(final ByteBuffer buffer) {
+					 final long id = buffer.getLong();
+					 final byte[] message = new byte[buffer.remaining()];
+					 buffer.get(message);
+					 return new MessageEvent(id, new String(message, StandardCharsets.UTF_8));
+				 }
+			 }
+		);
+		final TinyEvents target = new TinyEvents();
+		final List<Long> received = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch latch = new CountDownLatch(2);
+		target.register(MessageEvent.class, event -> {
+			received.add(event.id);
+			latch.countDown();
+		});
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+		try (
+			 final NetworkBridge.Receiver receiver = NetworkBridge.listen(
+				  new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				  target, codecs, errors::add
+			 );
+			 final NetworkBridge.Sender sender = NetworkBridge.connect(receiver.address(), codecs, errors::add)
+		) {
+			assertTrue(sender.publish(new MessageEvent(1, "ping")));
+			assertFalse(sender.publish(new MessageEvent(2, "poison")));
+			assertTrue(sender.publish(new MessageEvent(3, "ping")));
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+			assertEquals(List.of(1L, 3L), received);
+			assertEquals(1, errors.size());
+			assertTrue(errors.get(0) instanceof IllegalStateException);
+		}
+	}
+
+	static final class MessageEvent extends AbstractEvent {
+		private final long id;
+		private final String message;
+
+		MessageEvent(final long id, final String message) {
+			this.id = id;
+			this.message = message;
+		}
+
+		public @Override int hashCode() {
+			return Objects.hash(this.id, this.message);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof MessageEvent event && this.id == event.id && Objects.equals(this.message, event.message);
+		}
+
+		public @Override String toString() {
+			return "MessageEvent[id='" + this.id + "', message='" + this.message + "']";
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link SharedMemoryBridge shared-memory bridge}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("SharedMemoryBridge.java")
+class TestSharedMemoryBridge {
+	private static final EventCodec.Registry CODECS = new EventCodec.Registry().register(
+		 1, TickEvent.class, new EventCodec<>() {
+			 public @Override void encode(final TickEvent event, final ByteBuffer buffer) {
+				 buffer.putLong(event.tick);
+			 }
+
+			 public @Override TickEvent decode(final ByteBuffer buffer) {
+				 return new TickEvent(buffer.getLong());
+			 }
+		 }
+	);
+
+	/**
+	 * Forwards events through two mappings of the same file.
+	 */
+	@Test
+	@DisplayName("forward & poll")
+	void forward() throws Exception {
+		final Path file = Files.createTempFile("tinyevents", ".ring");
+		try (
+			 final SharedMemoryBridge producer = SharedMemoryBridge.open(file, 64, 32, CODECS, Throwable::printStackTrace);
+			 final SharedMemoryBridge consumer = SharedMemoryBridge.open(file, 64, 32, CODECS, Throwable::printStackTrace)
+		) {
+			final TinyEvents source = new TinyEvents(), target = new TinyEvents();
+			final List<Long> received = new ArrayList<>();
+			target.register(TickEvent.class, event -> received.add(event.tick));
+			producer.forward(source, TickEvent.class);
+
+			for (long tick = 0 ; tick < 10 ; tick++) source.call(new TickEvent(tick));
+			assertEquals(10, producer.cursor());
+			assertEquals(10, consumer.poll(target, Integer.MAX_VALUE));
+			assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), received);
+			assertEquals(0, consumer.poll(target, Integer.MAX_VALUE));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Skips overwritten slots and reports the lost events.
+	 */
+	@Test
+	@DisplayName("overrun")
+	void overrun() throws Exception {
+		final Path file = Files.createTempFile("tinyevents", ".ring");
+		final List<Throwable> errors = new ArrayList<>();
+		try (
+			 final SharedMemoryBridge producer = SharedMemoryBridge.open(file, 4, 32, CODECS, Throwable::printStackTrace);
+			 final SharedMemoryBridge consumer = SharedMemoryBridge.open(file, 4, 32, CODECS, errors::add)
+		) {
+			final TinyEvents target = new TinyEvents();
+			final List<Long> received = new ArrayList<>();
+			target.register(TickEvent.class, event -> received.add(event.tick));
+
+			for (long tick = 0 ; tick < 10 ; tick++) assertTrue(producer.publish(new TickEvent(tick)));
+			assertEquals(3, consumer.poll(target, Integer.MAX_VALUE));
+			assertEquals(List.of(7L, 8L, 9L), received);
+			assertEquals(1, errors.size());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Dispatches from the listener-thread while the producer keeps publishing.<br>
+	 * The producer never waits for consumers, so we stay below the capacity to not get lapped.
+	 */
+	@Test
+	@DisplayName("listen")
+	void listen() throws Exception {
+		final Path file = Files.createTempFile("tinyevents", ".ring");
+		final int count = 50_000;
+		try (
+			 final SharedMemoryBridge producer = SharedMemoryBridge.open(file, 1 << 16, 32, CODECS, Throwable::printStackTrace);
+			 final SharedMemoryBridge consumer = SharedMemoryBridge.open(file, 1 << 16, 32, CODECS, Throwable::printStackTrace)
+		) {
+			final TinyEvents target = new TinyEvents();
+			final CountDownLatch latch = new CountDownLatch(count);
+			target.register(TickEvent.class, event -> latch.countDown());
+			consumer.listen(target);
+
+			for (long tick = 0 ; tick < count ; tick++) producer.publish(new TickEvent(tick));
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	static final class TickEvent extends AbstractEvent {
+		private final long tick;
+
+		TickEvent(final long tick) {
+			this.tick = tick;
+		}
+
+		public @Override int hashCode() {
+			return Long.hashCode(this.tick);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof TickEvent event && Objects.equals(this.tick, event.tick);
+		}
+
+		public @Override String toString() {
+			return "TickEvent[tick='" + this.tick + "']";
+		}
+	}
+}
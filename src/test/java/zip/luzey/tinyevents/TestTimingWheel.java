@@ -0,0 +1,176 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link TimingWheel timing-wheel}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("TimingWheel.java")
+class TestTimingWheel {
+	/**
+	 * Calls a delayed event through the priority-ordered dispatch.
+	 */
+	@Test
+	@DisplayName("callLater")
+	void callLater() throws InterruptedException {
+		final TinyEvents events = new TinyEvents();
+		final List<String> order = new ArrayList<>();
+		final CountDownLatch latch = new CountDownLatch(1);
+		events.register(TimedEvent.class, new EventHandlers.IHandler<>() {
+			public @Override void handle(final TimedEvent event) {
+				order.add("low");
+				latch.countDown();
+			}
+
+			public @Override short priority() {
+				return -1;
+			}
+		});
+		events.register(TimedEvent.class, event -> order.add("default"));
+
+		final long start = System.nanoTime();
+		final TimingWheel.Timeout timeout = events.callLater(new TimedEvent(0), 20, TimeUnit.MILLISECONDS);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertEquals(List.of("default", "low"), order);
+		assertTrue(timeout.isExpired());
+		assertFalse(timeout.cancel());
+	}
+
+	/**
+	 * Runs many timeouts spread over multiple levels, none of them early.
+	 */
+	@Test
+	@DisplayName("levels")
+	void levels() throws InterruptedException {
+		try (final TimingWheel wheel = new TimingWheel(10, TimeUnit.MICROSECONDS, null, TinyEvents.DEFAULT_ON_ERROR)) {
+			final int count = 100_000;
+			final CountDownLatch latch = new CountDownLatch(count);
+			final AtomicInteger early = new AtomicInteger();
+			for (int index = 0 ; index < count ; index++) {
+				final long delay = ThreadLocalRandom.current().nextLong(TimeUnit.MILLISECONDS.toNanos(150));
+				final long due = System.nanoTime() + delay;
+				wheel.schedule(() -> {
+					if (System.nanoTime() < due) early.incrementAndGet();
+					latch.countDown();
+				}, delay, TimeUnit.NANOSECONDS);
+			}
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+			assertEquals(0, early.get());
+		}
+	}
+
+	/**
+	 * Cancels one-shot and periodic timeouts.
+	 */
+	@Test
+	@DisplayName("cancel & periodic")
+	void cancel() throws InterruptedException {
+		final TinyEvents events = new TinyEvents();
+		final TimingWheel wheel = new TimingWheel();
+		events.setTimer(wheel);
+		final AtomicInteger calls = new AtomicInteger(), cancelled = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(5);
+		events.register(TimedEvent.class, event -> {
+			if (event.id == 0) cancelled.incrementAndGet();
+			else {
+				calls.incrementAndGet();
+				latch.countDown();
+			}
+		});
+
+		final TimingWheel.Timeout timeout = events.callLater(new TimedEvent(0), 10, TimeUnit.MILLISECONDS);
+		assertTrue(timeout.cancel());
+		assertTrue(timeout.isCancelled());
+
+		final TimingWheel.Timeout periodic = events.callAtFixedRate(() -> new TimedEvent(1), 0, 2, TimeUnit.MILLISECONDS);
+		assertTrue(periodic.isPeriodic());
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertTrue(periodic.cancel());
+		Thread.sleep(20);
+		final int stopped = calls.get();
+		Thread.sleep(20);
+		assertEquals(stopped, calls.get());
+		assertEquals(0, cancelled.get());
+
+		wheel.close();
+		assertThrows(IllegalStateException.class, () -> events.callLater(new TimedEvent(2), 1, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Keeps delays and periods that overflow the clock in the far future instead of running them right away.
+	 */
+	@Test
+	@DisplayName("overflow")
+	void overflow() throws InterruptedException {
+		final TimingWheel wheel = new TimingWheel();
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch first = new CountDownLatch(1);
+		final TimingWheel.Timeout delayed = wheel.schedule(calls::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		final TimingWheel.Timeout days = wheel.schedule(calls::incrementAndGet, Long.MAX_VALUE, TimeUnit.DAYS);
+		final TimingWheel.Timeout periodic = wheel.scheduleAtFixedRate(() -> {
+			calls.incrementAndGet();
+			first.countDown();
+		}, 0, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+		assertTrue(first.await(5, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(1, calls.get());
+		assertFalse(delayed.isExpired());
+		assertFalse(days.isExpired());
+		assertTrue(periodic.cancel());
+		wheel.close();
+	}
+
+	static final class TimedEvent extends AbstractEvent {
+		private final int id;
+
+		TimedEvent(final int id) {
+			this.id = id;
+		}
+
+		public @Override int hashCode() {
+			return Objects.hash(this.id);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof TimedEvent event && this.id == event.id;
+		}
+
+		public @Override String toString() {
+			return "TimedEvent[id='" + this.id + "']";
+		}
+	}
+}
@@ -19,17 +19,23 @@ package zip.luzey.tinyevents;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.openjdk.jol.info.GraphLayout;
 import zip.luzey.tinyevents.AbstractEvent.Cancellable;
 import zip.luzey.tinyevents.EventHandlers.IHandler;
 
-import java.util.IdentityHashMap;
-import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * The only junit-test-class of this project.
+ * The junit-test-class for the {@link TinyEvents event-manager}.
  *
  * @author lunarydess
  * @version 1.0.0-release
@@ -175,6 +181,356 @@ class TestTinyEvents {
 		assertNull(events.getHandlers().get(DummyEvent1.class));
 	}
 
+	/**
+	 * Tests disabling, probing and re-enabling of a failing handler.
+	 */
+	@Test
+	@DisplayName("failure-policy")
+	void failurePolicy() throws InterruptedException {
+		final List<Throwable> errors = new ArrayList<>();
+		final TinyEvents events = new TinyEvents(IdentityHashMap::new, errors::add);
+		events.setFailurePolicy(new FailurePolicy(3, 20, 1000, 1000, TimeUnit.MILLISECONDS));
+
+		final AtomicBoolean broken = new AtomicBoolean(true);
+		final AtomicInteger calls = new AtomicInteger();
+		final IHandler<DummyEvent2> handler = event -> {
+			calls.incrementAndGet();
+			if (broken.get()) throw new IllegalStateException("broken");
+		};
+		events.register(DummyEvent2.class, handler);
+
+		for (int i = 0 ; i < 10 ; i++) events.call(new DummyEvent2(i, i));
+		assertEquals(3, calls.get());
+		assertEquals(3, events.getFailures());
+		assertTrue(events.isDisabled(handler));
+		assertEquals(2, errors.size());
+		assertTrue(((TinyEvents.HandlerFailure) errors.get(1)).isDisabled());
+		assertEquals(1, ((TinyEvents.HandlerFailure) errors.get(1)).getUnreported());
+
+		Thread.sleep(30);
+		events.call(new DummyEvent2(0, 0));
+		events.call(new DummyEvent2(0, 0));
+		assertEquals(4, calls.get());
+		assertTrue(events.isDisabled(handler));
+
+		broken.set(false);
+		Thread.sleep(60);
+		for (int i = 0 ; i < 10 ; i++) events.call(new DummyEvent2(i, i));
+		assertEquals(14, calls.get());
+		assertFalse(events.isDisabled(handler));
+		assertEquals(4, events.getFailures(handler));
+
+		events.unregister(DummyEvent2.class, handler);
+		assertEquals(0, events.getFailures(handler));
+
+		// a successful probe resets the delay even if a single failure disables the handler.
+		final TinyEvents strict = new TinyEvents(IdentityHashMap::new, errors::add);
+		strict.setFailurePolicy(new FailurePolicy(1, 50, 1000, 0, TimeUnit.MILLISECONDS));
+		final AtomicInteger strictCalls = new AtomicInteger();
+		final IHandler<DummyEvent2> flaky = event -> {
+			strictCalls.incrementAndGet();
+			if (broken.get()) throw new IllegalStateException("broken");
+		};
+		strict.register(DummyEvent2.class, flaky);
+		for (int cycle = 1 ; cycle <= 3 ; cycle++) {
+			broken.set(true);
+			strict.call(new DummyEvent2(0, 0));
+			assertTrue(strict.isDisabled(flaky));
+
+			broken.set(false);
+			Thread.sleep(75);
+			strict.call(new DummyEvent2(0, 0));
+			assertEquals(cycle * 2, strictCalls.get());
+			assertFalse(strict.isDisabled(flaky));
+		}
+	}
+
+	/**
+	 * Tests that handlers get called from the highest to the lowest priority.
+	 */
+	@Test
+	@DisplayName("priority")
+	void priority() {
+		final TinyEvents events = new TinyEvents();
+		final List<Integer> order = new ArrayList<>();
+		events.register(DummyEvent1.class, handler((short) 0, event -> order.add(0)));
+		events.register(DummyEvent1.class, handler((short) 5, event -> order.add(5)));
+		events.register(DummyEvent1.class, handler((short) -5, event -> order.add(-5)));
+		events.register(DummyEvent1.class, handler((short) 5, event -> order.add(6)));
+
+		events.call(new DummyEvent1("", ""));
+		assertEquals(List.of(5, 6, 0, -5), order);
+	}
+
+	/**
+	 * Tests that handlers of a priority-tier run in parallel and get joined before the next tier.
+	 */
+	@Test
+	@DisplayName("parallelism")
+	void parallelism() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final TinyEvents events = new TinyEvents();
+			events.setParallelism(pool);
+
+			final CyclicBarrier barrier = new CyclicBarrier(4);
+			final AtomicInteger tier = new AtomicInteger();
+			final AtomicBoolean ordered = new AtomicBoolean(true);
+			for (int i = 0 ; i < 4 ; i++) events.register(DummyEvent1.class, handler((short) 1, event -> {
+				if (tier.get() != 1) ordered.set(false);
+				try {
+					barrier.await(5, TimeUnit.SECONDS);
+				} catch (final Exception exception) {
+					throw new IllegalStateException(exception);
+				}
+				tier.incrementAndGet();
+			}));
+			events.register(DummyEvent1.class, handler((short) 2, event -> tier.set(1)));
+			events.register(DummyEvent1.class, handler((short) 0, event -> {
+				if (tier.get() != 5) ordered.set(false);
+			}));
+
+			events.call(new DummyEvent1("", ""));
+			assertEquals(5, tier.get());
+			assertTrue(ordered.get());
+			assertEquals(0, events.getFailures());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that children call their parents handlers merged with their own by priority.
+	 */
+	@Test
+	@DisplayName("child")
+	@SuppressWarnings("deprecation")
+	void child() {
+		final TinyEvents parent = new TinyEvents();
+		final TinyEvents child = parent.child(), sibling = parent.child();
+		final List<String> order = new ArrayList<>();
+
+		final IHandler<DummyEvent1> global = handler((short) 0, event -> order.add("global"));
+		parent.register(DummyEvent1.class, global);
+		child.register(DummyEvent1.class, handler((short) 5, event -> order.add("high")));
+		child.register(DummyEvent1.class, handler((short) -5, event -> order.add("low")));
+
+		child.call(new DummyEvent1("", ""));
+		assertEquals(List.of("high", "global", "low"), order);
+
+		order.clear();
+		sibling.call(new DummyEvent1("", ""));
+		parent.call(new DummyEvent1("", ""));
+		assertEquals(List.of("global", "global"), order);
+
+		order.clear();
+		parent.register(DummyEvent1.class, handler((short) 10, event -> order.add("late")));
+		child.call(new DummyEvent1("", ""));
+		assertEquals(List.of("late", "high", "global", "low"), order);
+
+		order.clear();
+		parent.unregister(DummyEvent1.class, global);
+		child.call(new DummyEvent1("", ""));
+		assertEquals(List.of("late", "high", "low"), order);
+		assertSame(parent, child.getParent());
+		assertEquals(1, parent.getHandlers().size());
+		assertEquals(2, child.getHandlers().get(DummyEvent1.class).length);
+	}
+
+	/**
+	 * Tests that lazy events only get created when a handler listens to them.
+	 */
+	@Test
+	@DisplayName("lazy")
+	void lazy() {
+		final TinyEvents parent = new TinyEvents();
+		final TinyEvents child = parent.child();
+		final AtomicInteger created = new AtomicInteger(), called = new AtomicInteger();
+
+		assertFalse(child.hasListeners(DummyEvent1.class));
+		child.call(DummyEvent1.class, () -> new DummyEvent1(String.valueOf(created.incrementAndGet()), ""));
+		assertEquals(0, created.get());
+
+		final IHandler<DummyEvent1> handler = event -> called.incrementAndGet();
+		parent.register(DummyEvent1.class, handler);
+		assertTrue(child.hasListeners(DummyEvent1.class));
+		child.call(DummyEvent1.class, () -> new DummyEvent1(String.valueOf(created.incrementAndGet()), ""));
+		assertEquals(1, created.get());
+		assertEquals(1, called.get());
+
+		parent.unregister(DummyEvent1.class, handler);
+		assertFalse(parent.hasListeners(DummyEvent1.class));
+		assertFalse(child.hasListeners(DummyEvent1.class));
+		child.call(DummyEvent1.class, () -> new DummyEvent1(String.valueOf(created.incrementAndGet()), ""));
+		assertEquals(1, created.get());
+	}
+
+	/**
+	 * Tests that muted groups are skipped, get rebuilt lazily by the next call and forget unregistered handlers.
+	 */
+	@Test
+	@DisplayName("groups")
+	void groups() {
+		final TinyEvents events = new TinyEvents();
+		final List<String> order = new ArrayList<>();
+		final HandlerGroup group = events.group();
+		events.register(DummyEvent1.class, handler((short) 0, event -> order.add("plain")));
+		group.register(DummyEvent1.class, handler((short) 5, event -> order.add("high")))
+		     .register(DummyEvent1.class, handler((short) 0, event -> order.add("grouped")))
+		     .register(DummyEvent2.class, event -> order.add("other"));
+		assertEquals(3, group.size());
+
+		events.call(new DummyEvent1("", ""));
+		events.call(new DummyEvent2(0, 0));
+		assertEquals(List.of("high", "plain", "grouped", "other"), order);
+
+		final IHandler<? extends AbstractEvent>[] before = events.getHandlers().get(DummyEvent1.class);
+		for (int i = 0 ; i < 100 ; i++) group.setEnabled(i % 2 != 0 && i < 50);
+		assertSame(before, events.getHandlers().get(DummyEvent1.class));
+
+		order.clear();
+		events.call(new DummyEvent1("", ""));
+		events.call(new DummyEvent2(0, 0));
+		assertEquals(List.of("plain"), order);
+		assertFalse(group.isEnabled());
+		assertFalse(events.hasListeners(DummyEvent2.class));
+
+		final IHandler<DummyEvent1> late = handler((short) 0, event -> order.add("late"));
+		group.register(DummyEvent1.class, late);
+		group.unregister(DummyEvent1.class, late);
+		group.register(DummyEvent1.class, late);
+
+		order.clear();
+		group.setEnabled(true);
+		events.call(new DummyEvent1("", ""));
+		assertEquals(List.of("high", "plain", "grouped", "late"), order);
+		assertEquals(4, group.size());
+
+		final TinyEvents failing = new TinyEvents(IdentityHashMap::new, throwable -> {
+		});
+		failing.setFailurePolicy(new FailurePolicy(1, 1, 1, 1, TimeUnit.MINUTES));
+		final HandlerGroup flaky = failing.group();
+		final AtomicInteger calls = new AtomicInteger();
+		final IHandler<DummyEvent2> broken = event -> {
+			calls.incrementAndGet();
+			throw new IllegalStateException("broken");
+		};
+		flaky.register(DummyEvent2.class, broken);
+		failing.call(new DummyEvent2(0, 0));
+		assertTrue(failing.isDisabled(broken));
+
+		failing.unregister(DummyEvent2.class, broken);
+		assertEquals(0, flaky.size());
+		flaky.setEnabled(false);
+		failing.call(new DummyEvent2(0, 0));
+		flaky.setEnabled(true);
+		failing.call(new DummyEvent2(0, 0));
+		assertEquals(1, calls.get());
+	}
+
+	/**
+	 * Tests that blocking handlers of a tier run alongside each other on java 21 and sequentially below.
+	 */
+	@Test
+	@DisplayName("virtual-threads")
+	void virtualThreads() {
+		final TinyEvents events = new TinyEvents();
+		events.setVirtualThreads(true);
+		final List<String> order = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch latch = new CountDownLatch(2);
+		final AtomicBoolean overlapped = new AtomicBoolean(true);
+
+		for (int i = 0 ; i < 2 ; i++) events.register(DummyEvent1.class, new IHandler<>() {
+			public @Override void handle(final DummyEvent1 event) {
+				latch.countDown();
+				try {
+					if (TinyEvents.supportsVirtualThreads() && !latch.await(5, TimeUnit.SECONDS)) overlapped.set(false);
+				} catch (final InterruptedException exception) {
+					overlapped.set(false);
+				}
+				order.add("blocking");
+			}
+
+			public @Override short priority() {
+				return 1;
+			}
+
+			public @Override boolean blocking() {
+				return true;
+			}
+		});
+		events.register(DummyEvent1.class, handler((short) 1, event -> order.add("inline")));
+		events.register(DummyEvent1.class, handler((short) 0, event -> order.add("after")));
+
+		// set by the testJava21 task, which runs against the multi-release jar.
+		if (Boolean.getBoolean("tinyevents.multiRelease")) assertTrue(TinyEvents.supportsVirtualThreads());
+		events.call(new DummyEvent1("", ""));
+		assertTrue(overlapped.get());
+		assertEquals(4, order.size());
+		assertEquals("after", order.get(3));
+		if (!TinyEvents.supportsVirtualThreads()) assertEquals(List.of("blocking", "blocking", "inline", "after"), order);
+	}
+
+	/**
+	 * Tests the memory per handler with and without compact-mode against jol.
+	 */
+	@Test
+	@DisplayName("footprint")
+	void footprint() {
+		final double[] compact = bytesPerHandler(new TinyEvents(IdentityHashMap::new, Throwable::printStackTrace, true));
+		final double[] regular = bytesPerHandler(new TinyEvents());
+
+		assertTrue(compact[0] <= 8, "compact-mode uses " + compact[0] + " bytes per handler");
+		assertTrue(regular[0] > compact[0]);
+		assertEquals(compact[0], compact[1], compact[0] * 0.1);
+		assertEquals(regular[0], regular[1], regular[0] * 0.1);
+	}
+
+	/**
+	 * Measures how much registering another 10.000 handlers grows our event-manager.
+	 *
+	 * @param events The event-manager we want to measure.
+	 *
+	 * @return The bytes per handler measured by jol and estimated by {@link TinyEvents#footprint()}.
+	 */
+	private static double[] bytesPerHandler(final TinyEvents events) {
+		final List<IHandler<DummyEvent1>> handlers = new ArrayList<>();
+		for (int i = 0 ; i < 1_000 ; i++) handlers.add(handler((short) (i % 3), event -> {}));
+		handlers.forEach(handler -> events.register(DummyEvent1.class, handler));
+		final long measured = GraphLayout.parseInstance(events).subtract(GraphLayout.parseInstance(handlers.toArray())).totalSize();
+		final long estimated = events.footprint().getBytes();
+
+		for (int i = 0 ; i < 10_000 ; i++) handlers.add(handler((short) (i % 3), event -> {}));
+		handlers.subList(1_000, handlers.size()).forEach(handler -> events.register(DummyEvent1.class, handler));
+		assertEquals(11_000, events.footprint().getHandlers());
+		return new double[]{
+			 (GraphLayout.parseInstance(events).subtract(GraphLayout.parseInstance(handlers.toArray())).totalSize() - measured) / 10_000D,
+			 (events.footprint().getBytes() - estimated) / 10_000D
+		};
+	}
+
+	/**
+	 * @param priority The priority of our handler.
+	 * @param handler  The logic of our handler.
+	 * @param <E>      The type of our event.
+	 *
+	 * @return A handler with the given priority.
+	 */
+	private static <E extends AbstractEvent> IHandler<E> handler(
+		 final short priority,
+		 final Consumer<E> handler
+	) {
+		return new IHandler<>() {
+			public @Override void handle(final E event) {
+				handler.accept(event);
+			}
+
+			public @Override short priority() {
+				return priority;
+			}
+		};
+	}
+
 	static final class DummyEvent1 extends AbstractEvent {
 		private String string1, string2;
 
@@ -0,0 +1,159 @@
+/**
+ * This file is part of <a href="https://github.com/lunarydess/Library-TinyEvents">TinyEvents</a>
+ * Copyright (C) 2024 lunarydess (inbox@luzey.zip)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zip.luzey.tinyevents;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import zip.luzey.tinyevents.EventHandlers.IHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The junit-test-class for the {@link TopicRouter topic-router}.
+ *
+ * @author lunarydess
+ * @version 1.0.0-release
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("TopicRouter.java")
+class TestTopicRouter {
+	/**
+	 * Matches exact topics and both wildcards.
+	 */
+	@Test
+	@DisplayName("wildcards")
+	void wildcards() {
+		final TopicRouter<OrderEvent> router = new TopicRouter<>();
+		final List<String> matched = new ArrayList<>();
+		for (final String pattern : List.of(
+			 "orders.eu.created", "orders.*.created", "orders.#", "#", "*.eu.*", "orders.#.created", "orders.*", "payments.#"
+		)) router.subscribe(pattern, event -> matched.add(pattern));
+
+		assertEquals(6, router.publish("orders.eu.created", new OrderEvent(0)));
+		assertEquals(List.of("orders.eu.created", "orders.*.created", "orders.#", "#", "*.eu.*", "orders.#.created"), matched);
+
+		matched.clear();
+		router.publish("orders", new OrderEvent(0));
+		assertEquals(List.of("orders.#", "#"), matched);
+
+		matched.clear();
+		router.publish("orders.us.east.created", new OrderEvent(0));
+		assertEquals(List.of("orders.#", "#", "orders.#.created"), matched);
+
+		matched.clear();
+		router.publish("orders.us", new OrderEvent(0));
+		assertEquals(List.of("orders.#", "#", "orders.*"), matched);
+
+		assertThrows(IllegalArgumentException.class, () -> router.subscribe("orders.eu*", event -> {
+		}));
+		assertThrows(IllegalArgumentException.class, () -> router.subscribe("orders..created", event -> {
+		}));
+	}
+
+	/**
+	 * Orders subscribers by priority and refreshes cached topics when subscriptions change.
+	 */
+	@Test
+	@DisplayName("priority & cache")
+	void cache() {
+		final TopicRouter<OrderEvent> router = new TopicRouter<>();
+		final List<String> order = new ArrayList<>();
+		final IHandler<OrderEvent> low = event -> order.add("low");
+		router.subscribe("orders.#", low);
+		router.subscribe("orders.*.created", new IHandler<>() {
+			public @Override void handle(final OrderEvent event) {
+				order.add("high");
+			}
+
+			public @Override short priority() {
+				return 10;
+			}
+		});
+
+		router.publish("orders.eu.created", new OrderEvent(0));
+		assertEquals(List.of("high", "low"), order);
+
+		assertTrue(router.unsubscribe("orders.#", low));
+		assertFalse(router.unsubscribe("orders.#", low));
+		order.clear();
+		router.publish("orders.eu.created", new OrderEvent(0));
+		assertEquals(List.of("high"), order);
+		assertFalse(router.hasSubscribers("orders.eu.deleted"));
+
+		router.subscribe("orders.eu.deleted", low);
+		assertTrue(router.hasSubscribers("orders.eu.deleted"));
+
+		final TopicRouter<OrderEvent> bounded = new TopicRouter<>(Throwable::printStackTrace, 4);
+		bounded.subscribe("orders.#", event -> {
+		});
+		for (int id = 0 ; id < 100 ; id++) {
+			bounded.publish("orders.hot", new OrderEvent(id));
+			bounded.publish("orders." + id, new OrderEvent(id));
+		}
+		assertEquals(4, bounded.resolved.size());
+		assertTrue(bounded.resolved.containsKey("orders.hot"));
+		assertTrue(bounded.resolved.containsKey("orders.99"));
+	}
+
+	/**
+	 * Forwards matching topics into an event-manager and isolates failing subscribers.
+	 */
+	@Test
+	@DisplayName("forward")
+	void forward() {
+		final AtomicInteger errors = new AtomicInteger();
+		final TopicRouter<OrderEvent> router = new TopicRouter<>(throwable -> errors.incrementAndGet(), 2);
+		final TinyEvents events = new TinyEvents();
+		final AtomicInteger called = new AtomicInteger();
+		events.register(OrderEvent.class, event -> called.incrementAndGet());
+
+		router.subscribe("orders.#", event -> {
+			throw new IllegalStateException("failing subscriber");
+		});
+		router.subscribe("orders.#", events::call);
+		for (int id = 0 ; id < 10 ; id++) router.publish("orders." + id, new OrderEvent(id));
+		assertEquals(10, called.get());
+		assertEquals(10, errors.get());
+		assertEquals(0, router.publish("payments.eu", new OrderEvent(0)));
+	}
+
+	static final class OrderEvent extends AbstractEvent {
+		private final int id;
+
+		OrderEvent(final int id) {
+			this.id = id;
+		}
+
+		public @Override int hashCode() {
+			return Objects.hash(this.id);
+		}
+
+		public @Override boolean equals(final Object object) {
+			return object instanceof OrderEvent event && this.id == event.id;
+		}
+
+		public @Override String toString() {
+			return "OrderEvent[id='" + this.id + "']";
+		}
+	}
+}